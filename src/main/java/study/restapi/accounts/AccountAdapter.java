@@ -12,8 +12,12 @@ public class AccountAdapter extends User {
     private Account account;
 
     public AccountAdapter(Account account) {
-        super(account.getEmail(), account.getPassword(), authorities(account.getRoles()));
-        this.account=account;
+        this(account, authorities(account.getRoles()));
+    }
+
+    private AccountAdapter(Account account, Collection<? extends GrantedAuthority> authorities) {
+        super(account.getEmail(), account.getPassword(), authorities);
+        this.account = account;
     }
 
     private static Collection<? extends GrantedAuthority> authorities(Set<AccountRole> roles) {
@@ -22,6 +26,11 @@ public class AccountAdapter extends User {
                 .collect(Collectors.toSet());
     }
 
+    // 인증 후 eraseCredentials()로 비밀번호가 지워지므로 캐시된 객체는 복사해서 내보낸다.
+    public AccountAdapter copy() {
+        return new AccountAdapter(account, getAuthorities());
+    }
+
     public Account getAccount() {
         return account;
     }
@@ -6,23 +6,29 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import study.restapi.common.ExpiringCache;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService implements UserDetailsService {
     private final AccountRepository accountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ExpiringCache<String, AccountAdapter> accountCache;
 
     public Account saveAccount(Account account) {
         account.setPassword(passwordEncoder.encode(account.getPassword()));
-        return accountRepository.save(account);
+        Account savedAccount = accountRepository.save(account);
+        accountCache.evict(savedAccount.getEmail());
+        accountCache.evictIf(a -> a.getAccount().getId().equals(savedAccount.getId()));
+        return savedAccount;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Account account = accountRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException(username));
+        AccountAdapter accountAdapter = accountCache.get(username, email -> accountRepository.findByEmail(email)
+                .map(AccountAdapter::new)
+                .orElseThrow(() -> new UsernameNotFoundException(email)));
 
-        return new AccountAdapter(account);
+        return accountAdapter.copy();
     }
 }
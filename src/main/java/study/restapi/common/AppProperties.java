@@ -3,15 +3,20 @@ package study.restapi.common;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import javax.validation.constraints.NotEmpty;
+import java.time.Duration;
+import java.util.List;
 
 @Component
 @ConfigurationProperties(prefix = "my-app")
 @Getter
 @Setter
 public class AppProperties {
+    public static final List<String> TOKEN_MODES = List.of("memory", "concurrent", "persistent", "jwt");
+
     @NotEmpty
     private String adminUsername;
 
@@ -29,4 +34,91 @@ public class AppProperties {
 
     @NotEmpty
     private String clientSecret;
+
+    private boolean eventSlicePaging;
+
+    private int accountCacheSize = 1000;
+
+    private Duration accountCacheTtl = Duration.ofMinutes(5);
+
+    private int eventBatchMaxSize = 1000;
+
+    private int eventUpdateMaxRetries = 3;
+
+    private int eventMultiGetMaxSize = 1000;
+
+    private int eventMultiGetChunkSize = 500;
+
+    private int eventImportChunkSize = 500;
+
+    private int eventImportMaxErrors = 100;
+
+    private int eventStreamFetchSize = Integer.MIN_VALUE;
+
+    private int eventFeedBufferSize = 1024;
+
+    private int eventFeedSubscriberBufferSize = 256;
+
+    private Duration eventFeedTimeout = Duration.ofMinutes(30);
+
+    private int eventFeedSenderThreads = 8;
+
+    private Duration eventFeedSendTimeout = Duration.ofSeconds(10);
+
+    private Duration eventFeedHeartbeatInterval = Duration.ofSeconds(15);
+
+    private boolean eventStatusScheduling = true;
+
+    private Duration eventStatusTickInterval = Duration.ofSeconds(1);
+
+    private Duration eventStatusHorizon = Duration.ofHours(1);
+
+    private int eventStatusMaxPending = 1000000;
+
+    private int eventStatusBatchSize = 500;
+
+    private int enrollmentWriteBatchSize = 200;
+
+    private Duration enrollmentWriteInterval = Duration.ofMillis(5);
+
+    private Duration enrollmentWriteTimeout = Duration.ofSeconds(5);
+
+    private int enrollmentWriteQueueSize = 10000;
+
+    private int eventCacheSize = 10000;
+
+    private Duration eventCacheTtl = Duration.ofMinutes(1);
+
+    private int eventCacheMaxVariants = 4;
+
+    private String tokenMode = "memory";
+
+    // jwt 모드에서 모든 노드가 같은 키로 서명하고 검증하도록 키 저장소에서 키 쌍을 읽는다.
+    private Resource tokenKeyStore;
+
+    private String tokenKeyStorePassword;
+
+    private String tokenKeyAlias = "jwt";
+
+    private int tokenCacheSize = 10000;
+
+    private Duration tokenCacheTtl = Duration.ofMinutes(10);
+
+    private int tokenStoreMaximumSize = 1_000_000;
+
+    private Duration tokenSweepInterval = Duration.ofSeconds(1);
+
+    private int tokenWriteBatchSize = 500;
+
+    private Duration tokenWriteInterval = Duration.ofMillis(100);
+
+    private int tokenWriteQueueSize = 100_000;
+
+    // 알 수 없는 값이면 TokenStore 빈이 하나도 만들어지지 않으므로 바인딩할 때 실패시킨다.
+    public void setTokenMode(String tokenMode) {
+        if (!TOKEN_MODES.contains(tokenMode)) {
+            throw new IllegalArgumentException("Unknown my-app.token-mode '" + tokenMode + "', expected one of " + TOKEN_MODES);
+        }
+        this.tokenMode = tokenMode;
+    }
 }
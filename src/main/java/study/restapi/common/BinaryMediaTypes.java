@@ -0,0 +1,15 @@
+package study.restapi.common;
+
+import org.springframework.http.MediaType;
+
+// HAL+JSON과 같은 구조를 바이너리로 주고받는 미디어 타입
+public class BinaryMediaTypes {
+    public static final String CBOR_VALUE = MediaType.APPLICATION_CBOR_VALUE;
+    public static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.valueOf(SMILE_VALUE);
+
+    private BinaryMediaTypes() {
+    }
+}
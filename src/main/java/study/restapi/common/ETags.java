@@ -0,0 +1,56 @@
+package study.restapi.common;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+public class ETags {
+    private ETags() {
+    }
+
+    public static String of(String value) {
+        return "\"" + value + "\"";
+    }
+
+    public static String hash(String value) {
+        return of(DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // If-None-Match 헤더 값이 주어진 ETag 중 하나와 일치하는지 확인한다. (약한 비교)
+    public static boolean matches(String header, String... eTags) {
+        return matches(header, false, eTags);
+    }
+
+    // If-Match 헤더 값이 주어진 ETag 중 하나와 일치하는지 확인한다. (강한 비교: W/ 태그는 일치하지 않는다)
+    public static boolean strongMatches(String header, String... eTags) {
+        return matches(header, true, eTags);
+    }
+
+    private static boolean matches(String header, boolean strong, String... eTags) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                if (strong) {
+                    continue;
+                }
+                value = value.substring(2);
+            }
+            for (String eTag : eTags) {
+                if (value.equals(strong ? eTag : weaken(eTag))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String weaken(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+}
@@ -4,15 +4,12 @@ import org.springframework.hateoas.RepresentationModel;
 import org.springframework.validation.Errors;
 import study.restapi.index.IndexController;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 public class ErrorsResource extends RepresentationModel {
     private Errors errors;
 
     public ErrorsResource(Errors errors) {
         this.errors = errors;
-        add(linkTo(methodOn(IndexController.class).index()).withRel("index"));
+        add(Links.link(IndexController.class, "index"));
     }
 
     public Errors getErrors() {
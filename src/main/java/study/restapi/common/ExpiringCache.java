@@ -0,0 +1,255 @@
+package study.restapi.common;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+// 최대 크기(LRU)와 TTL을 가지는 프로세스 내부 캐시
+// 키의 해시로 나눈 세그먼트마다 따로 잠그고 LRU도 세그먼트 안에서만 따진다. 작은 캐시는 세그먼트 하나로 정확한 LRU를 쓴다.
+public class ExpiringCache<K, V> {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    // evict, evictIf, clear 때마다 올린다. 로드를 시작한 뒤 바뀌었다면 그 결과는 넣지 않는다.
+    private final AtomicLong generation = new AtomicLong();
+
+    public ExpiringCache(int maximumSize, Duration ttl) {
+        this(maximumSize, ttl, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    ExpiringCache(int maximumSize, Duration ttl, LongSupplier ticker) {
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maximumSize / MIN_SEGMENT_SIZE)));
+        this.segments = new Segment[count];
+        this.segmentMask = count - 1;
+        int segmentSize = maximumSize <= 0 ? 0 : (maximumSize + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(segmentSize);
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & segmentMask];
+    }
+
+    // 같은 키에 대한 동시 미스는 한 번만 로드하고 나머지는 그 결과를 기다린다.
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, future);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        long loadGeneration = generation.get();
+        long start = ticker.getAsLong();
+        try {
+            V loaded = loader.apply(key);
+            Segment<K, V> segment = segmentFor(key);
+            synchronized (segment) {
+                // 로드하는 동안 evict 되었다면 오래된 값을 넣지 않는다. 다른 키로 지운 경우(evictIf)도 포함한다.
+                if (loaded != null && loading.get(key) == future && generation.get() == loadGeneration) {
+                    putLocked(segment, key, loaded);
+                }
+            }
+            future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.increment();
+            loadTimeNanos.add(ticker.getAsLong() - start);
+            loading.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public V getIfPresent(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.entries.get(key);
+            if (entry != null && entry.isExpired(ticker.getAsLong())) {
+                segment.entries.remove(key);
+                evictions.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            putLocked(segment, key, value);
+        }
+    }
+
+    private void putLocked(Segment<K, V> segment, K key, V value) {
+        if (segment.maximumSize <= 0) {
+            return;
+        }
+        segment.entries.put(key, new Entry<>(value, ticker.getAsLong() + ttlNanos));
+        Iterator<Map.Entry<K, Entry<V>>> eldest = segment.entries.entrySet().iterator();
+        while (segment.entries.size() > segment.maximumSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public void evict(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            generation.incrementAndGet();
+            segment.entries.remove(key);
+            loading.remove(key);
+        }
+    }
+
+    // 세대를 먼저 올리므로 아직 훑지 않은 세그먼트에 끝난 로드도 넣지 않는다.
+    public void evictIf(Predicate<? super V> predicate) {
+        generation.incrementAndGet();
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.entries.values().removeIf(e -> predicate.test(e.value));
+            }
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        loading.clear();
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public long getTotalLoadTime(TimeUnit unit) {
+        return unit.convert(loadTimeNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    public double getHitRatio() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public void registerMetrics(MeterRegistry registry, String name) {
+        FunctionCounter.builder("cache.gets", this, ExpiringCache::getHitCount)
+                .tag("cache", name).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, ExpiringCache::getMissCount)
+                .tag("cache", name).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this, ExpiringCache::getEvictionCount)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.size", this, ExpiringCache::size)
+                .tag("cache", name)
+                .register(registry);
+        FunctionTimer.builder("cache.loads", this, ExpiringCache::getLoadCount,
+                c -> c.getTotalLoadTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    private static class Segment<K, V> {
+        private final int maximumSize;
+        private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Segment(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package study.restapi.common;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.Link;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriTemplate;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// linkTo()는 호출할 때마다 현재 요청에서 URI를 다시 만들고 컨트롤러의 매핑도 다시 읽는다.
+// 컨트롤러의 @RequestMapping 경로 템플릿은 클래스마다 한 번만 읽어 두고, 서버 주소는 요청마다 한 번만 계산해서
+// 요청 속성에 둔 뒤 문자열을 이어 붙여서 만든다.
+public final class Links {
+    private static final String ROOT_ATTRIBUTE = Links.class.getName() + ".root";
+    private static final Map<Class<?>, UriTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    private Links() {
+    }
+
+    public static String base(Class<?> controller) {
+        return href(controller);
+    }
+
+    // 경로 템플릿의 변수를 앞에서부터 채우고, 남은 값은 WebMvcLinkBuilder.slash()처럼 뒤에 경로 조각으로 붙인다.
+    public static String href(Class<?> controller, Object... parameters) {
+        UriTemplate template = template(controller);
+        int variables = template.getVariableNames().size();
+        if (parameters.length < variables) {
+            throw new IllegalArgumentException("Missing path variables for " + controller.getName()
+                    + ": " + template.getVariableNames());
+        }
+        StringBuilder href = new StringBuilder(root());
+        href.append(template.expand(Arrays.copyOf(parameters, variables)));
+        for (int i = variables; i < parameters.length; i++) {
+            href.append('/').append(parameters[i]);
+        }
+        return href.toString();
+    }
+
+    public static Link link(Class<?> controller, String rel, Object... parameters) {
+        return new Link(href(controller, parameters), rel);
+    }
+
+    static UriTemplate template(Class<?> controller) {
+        return TEMPLATES.computeIfAbsent(controller, type -> {
+            RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(type, RequestMapping.class);
+            if (mapping == null || mapping.path().length == 0) {
+                throw new IllegalArgumentException(type.getName() + " has no @RequestMapping path");
+            }
+            return new UriTemplate(mapping.path()[0]);
+        });
+    }
+
+    private static String root() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "";
+        }
+        String root = (String) attributes.getAttribute(ROOT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (root == null) {
+            root = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            attributes.setAttribute(ROOT_ATTRIBUTE, root, RequestAttributes.SCOPE_REQUEST);
+        }
+        return root;
+    }
+}
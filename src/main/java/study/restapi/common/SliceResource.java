@@ -0,0 +1,36 @@
+package study.restapi.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+
+public class SliceResource<T> extends CollectionModel<T> {
+    private final SliceMetadata page;
+
+    public SliceResource(Iterable<T> content, SliceMetadata page, Link... links) {
+        super(content, links);
+        this.page = page;
+    }
+
+    @JsonProperty("page")
+    public SliceMetadata getPage() {
+        return page;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class SliceMetadata {
+        private final int size;
+        private final int number;
+        private final Long approximateTotalElements;
+
+        public static SliceMetadata of(Slice<?> slice, Long approximateTotalElements) {
+            return new SliceMetadata(slice.getSize(), slice.getNumber(), approximateTotalElements);
+        }
+    }
+}
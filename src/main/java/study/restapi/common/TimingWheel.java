@@ -0,0 +1,135 @@
+package study.restapi.common;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// 만료 시각을 tick 단위 슬롯에 나누어 담는 해시 타이밍 휠. 한 바퀴보다 먼 항목은 다음 바퀴에 처리된다.
+public class TimingWheel<T> {
+    private final long tickMillis;
+    private final int mask;
+    private final Queue<Timeout<T>>[] slots;
+    private final AtomicInteger size = new AtomicInteger();
+    // schedule은 읽기 잠금으로 동시에 실행하고, advance는 쓰기 잠금으로 currentTick을 옮긴다.
+    // 그래서 옛 currentTick으로 계산한 슬롯에 이미 지나간 뒤에 넣는 일이 없다.
+    private final ReadWriteLock tickLock = new ReentrantReadWriteLock();
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(Duration tick, int wheelSize, long startMillis) {
+        this.tickMillis = tick.toMillis();
+        int capacity = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new Queue[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        Lock lock = tickLock.readLock();
+        lock.lock();
+        try {
+            long tick = Math.max(Math.floorDiv(deadlineMillis, tickMillis), currentTick + 1);
+            Timeout<T> timeout = new Timeout<>(item, tick);
+            slots[(int) (tick & mask)].add(timeout);
+            size.incrementAndGet();
+            return timeout;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 예약을 취소한다. 슬롯에서는 advance나 evict가 그 자리를 지나갈 때 빠진다.
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.claim()) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    // 주어진 시각까지 만료된 항목을 꺼낸다. 한 스레드에서만 호출한다.
+    public int advance(long nowMillis, Consumer<T> expired) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        long from = currentTick + 1;
+        if (target < from) {
+            return 0;
+        }
+        Lock lock = tickLock.writeLock();
+        lock.lock();
+        try {
+            currentTick = target;
+        } finally {
+            lock.unlock();
+        }
+
+        int count = 0;
+        long to = Math.min(target, from + slots.length - 1);
+        for (long tick = from; tick <= to; tick++) {
+            Iterator<Timeout<T>> iterator = slots[(int) (tick & mask)].iterator();
+            while (iterator.hasNext()) {
+                Timeout<T> timeout = iterator.next();
+                if (timeout.tick <= target) {
+                    iterator.remove();
+                    if (timeout.claim()) {
+                        size.decrementAndGet();
+                        expired.accept(timeout.item);
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // 용량 제한을 넘었을 때 만료가 가까운 슬롯부터 대략적인 순서로 꺼낸다.
+    public int evict(int count, Consumer<T> evicted) {
+        int evictedCount = 0;
+        long from = currentTick + 1;
+        for (long tick = from; tick < from + slots.length && evictedCount < count; tick++) {
+            Iterator<Timeout<T>> iterator = slots[(int) (tick & mask)].iterator();
+            while (iterator.hasNext() && evictedCount < count) {
+                Timeout<T> timeout = iterator.next();
+                iterator.remove();
+                if (timeout.claim()) {
+                    size.decrementAndGet();
+                    evicted.accept(timeout.item);
+                    evictedCount++;
+                }
+            }
+        }
+        return evictedCount;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    public static class Timeout<T> {
+        private final T item;
+        private final long tick;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Timeout(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
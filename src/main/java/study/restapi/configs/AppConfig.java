@@ -1,28 +1,50 @@
 package study.restapi.configs;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import study.restapi.accounts.Account;
+import study.restapi.accounts.AccountAdapter;
 import study.restapi.accounts.AccountRepository;
 import study.restapi.accounts.AccountRole;
 import study.restapi.accounts.AccountService;
 import study.restapi.common.AppProperties;
+import study.restapi.common.ExpiringCache;
+import study.restapi.events.EventImporter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Set;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
     @Bean
     public ModelMapper modelMapper() {
         return new ModelMapper();
     }
 
+    @Bean
+    public ExpiringCache<String, AccountAdapter> accountCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        ExpiringCache<String, AccountAdapter> cache =
+                new ExpiringCache<>(appProperties.getAccountCacheSize(), appProperties.getAccountCacheTtl());
+        cache.registerMetrics(meterRegistry, "accounts");
+        return cache;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return PasswordEncoderFactories.createDelegatingPasswordEncoder();
@@ -55,4 +77,28 @@ public class AppConfig {
             }
         };
     }
+
+    // --import-events=<파일 경로> 옵션으로 실행하면 NDJSON 파일의 이벤트를 관리자 계정으로 가져온다.
+    // 관리자 계정은 applicationRunner가 만들므로 모든 러너가 끝난 뒤(ApplicationReadyEvent)에 가져온다.
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> eventImportRunner(EventImporter eventImporter,
+                                                                        AccountRepository accountRepository,
+                                                                        AppProperties appProperties,
+                                                                        ApplicationArguments args) {
+        return event -> {
+            List<String> paths = args.getOptionValues("import-events");
+            if (paths == null) {
+                return;
+            }
+            Account admin = accountRepository.findByEmail(appProperties.getAdminUsername())
+                    .orElseThrow(() -> new IllegalStateException("Admin account is not created yet"));
+            for (String path : paths) {
+                try (InputStream in = Files.newInputStream(Path.of(path))) {
+                    eventImporter.importEvents(in, admin);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
 }
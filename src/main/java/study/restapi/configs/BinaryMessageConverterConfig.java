@@ -0,0 +1,60 @@
+package study.restapi.configs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.config.HypermediaMappingInformation;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// CBOR, Smile 응답도 HAL+JSON과 같은 구조(_links, _embedded)로 쓰도록 컨버터를 바꿔 끼운다.
+// 스프링이 기본으로 넣는 컨버터는 HAL 모듈과 @JsonComponent(ErrorsSerializer)를 모른다.
+@Configuration
+@RequiredArgsConstructor
+public class BinaryMessageConverterConfig implements WebMvcConfigurer {
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+    private final ObjectProvider<HypermediaMappingInformation> hypermediaMappingInformation;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        replace(converters, MappingJackson2SmileHttpMessageConverter.class,
+                new MappingJackson2SmileHttpMessageConverter(halObjectMapper(new SmileFactory())));
+        replace(converters, MappingJackson2CborHttpMessageConverter.class,
+                new MappingJackson2CborHttpMessageConverter(halObjectMapper(new CBORFactory())));
+    }
+
+    // 기본 컨버터가 있던 자리(JSON 컨버터 뒤)에 넣어야 Accept가 없거나 */*인 요청이 계속 JSON을 받는다.
+    private void replace(List<HttpMessageConverter<?>> converters, Class<?> type, HttpMessageConverter<?> replacement) {
+        int index = -1;
+        for (int i = converters.size() - 1; i >= 0; i--) {
+            if (type.isInstance(converters.get(i))) {
+                converters.remove(i);
+                index = i;
+            }
+        }
+        if (index < 0) {
+            converters.add(replacement);
+        } else {
+            converters.add(index, replacement);
+        }
+    }
+
+    private ObjectMapper halObjectMapper(JsonFactory factory) {
+        ObjectMapper objectMapper = objectMapperBuilder.getObject().factory(factory).build();
+        HypermediaMappingInformation hal = hypermediaMappingInformation.orderedStream()
+                .filter(information -> information.getMediaTypes().contains(MediaTypes.HAL_JSON))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No HAL mapping information"));
+        return hal.configureObjectMapper(objectMapper);
+    }
+}
@@ -1,11 +1,14 @@
 package study.restapi.configs;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -13,9 +16,20 @@ import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.DefaultUserAuthenticationConverter;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.KeyStoreKeyFactory;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.restapi.accounts.AccountService;
+import study.restapi.common.AppProperties;
+import study.restapi.tokens.CachingJwtTokenStore;
+import study.restapi.tokens.ConcurrentTokenStore;
+import study.restapi.tokens.PersistentTokenStore;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
@@ -23,12 +37,72 @@ import study.restapi.accounts.AccountService;
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
     private final AccountService accountService;
     private final PasswordEncoder passwordEncoder;
+    private final AppProperties appProperties;
 
     @Bean
+    @ConditionalOnProperty(prefix = "my-app", name = "token-mode", havingValue = "memory", matchIfMissing = true)
     public TokenStore tokenStore() {
         return new InMemoryTokenStore();
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "my-app", name = "token-mode", havingValue = "concurrent")
+    public TokenStore concurrentTokenStore(MeterRegistry meterRegistry) {
+        ConcurrentTokenStore tokenStore = new ConcurrentTokenStore(
+                Duration.ofSeconds(AuthServerConfig.ACCESS_TOKEN_VALIDITY_SECONDS),
+                Duration.ofSeconds(AuthServerConfig.REFRESH_TOKEN_VALIDITY_SECONDS),
+                appProperties.getTokenSweepInterval(),
+                appProperties.getTokenStoreMaximumSize());
+        tokenStore.registerMetrics(meterRegistry);
+        return tokenStore;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "my-app", name = "token-mode", havingValue = "persistent")
+    public TokenStore persistentTokenStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                           MeterRegistry meterRegistry) {
+        PersistentTokenStore tokenStore = new PersistentTokenStore(jdbcTemplate, transactionTemplate,
+                Duration.ofSeconds(AuthServerConfig.ACCESS_TOKEN_VALIDITY_SECONDS),
+                Duration.ofSeconds(AuthServerConfig.REFRESH_TOKEN_VALIDITY_SECONDS),
+                appProperties.getTokenSweepInterval(),
+                appProperties.getTokenStoreMaximumSize(),
+                appProperties.getTokenWriteBatchSize(),
+                appProperties.getTokenWriteInterval(),
+                appProperties.getTokenWriteQueueSize());
+        tokenStore.registerMetrics(meterRegistry);
+        return tokenStore;
+    }
+
+    // 설정한 키 저장소의 키 쌍으로 서명하므로 재시작하거나 다른 노드로 가도 같은 토큰이 검증된다.
+    @Bean
+    @ConditionalOnProperty(prefix = "my-app", name = "token-mode", havingValue = "jwt")
+    public JwtAccessTokenConverter accessTokenConverter() {
+        if (appProperties.getTokenKeyStore() == null || appProperties.getTokenKeyStorePassword() == null) {
+            throw new IllegalStateException(
+                    "my-app.token-key-store and my-app.token-key-store-password are required for token-mode=jwt");
+        }
+        KeyStoreKeyFactory keyStoreKeyFactory = new KeyStoreKeyFactory(appProperties.getTokenKeyStore(),
+                appProperties.getTokenKeyStorePassword().toCharArray());
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        converter.setKeyPair(keyStoreKeyFactory.getKeyPair(appProperties.getTokenKeyAlias()));
+        // 토큰의 user_name으로 계정을 읽어야 @CurrentUser가 문자열이 아닌 AccountAdapter를 받는다.
+        DefaultUserAuthenticationConverter userAuthenticationConverter = new DefaultUserAuthenticationConverter();
+        userAuthenticationConverter.setUserDetailsService(accountService);
+        DefaultAccessTokenConverter accessTokenConverter = new DefaultAccessTokenConverter();
+        accessTokenConverter.setUserTokenConverter(userAuthenticationConverter);
+        converter.setAccessTokenConverter(accessTokenConverter);
+        return converter;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "my-app", name = "token-mode", havingValue = "jwt")
+    public TokenStore jwtTokenStore(JwtAccessTokenConverter accessTokenConverter, MeterRegistry meterRegistry) {
+        CachingJwtTokenStore tokenStore = new CachingJwtTokenStore(accessTokenConverter,
+                appProperties.getTokenCacheSize(), appProperties.getTokenCacheTtl());
+        tokenStore.getAccessTokenCache().registerMetrics(meterRegistry, "jwt-tokens");
+        return tokenStore;
+    }
+
     @Bean
     @Override
     public AuthenticationManager authenticationManagerBean() throws Exception {
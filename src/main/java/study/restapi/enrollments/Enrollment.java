@@ -0,0 +1,37 @@
+package study.restapi.enrollments;
+
+import lombok.*;
+import study.restapi.accounts.Account;
+import study.restapi.events.Event;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(of = "id")
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_enrollment_event_account", columnNames = {"event_id", "account_id"}))
+public class Enrollment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollment_seq")
+    @SequenceGenerator(name = "enrollment_seq", sequenceName = "enrollment_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Event event;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Account account;
+
+    @Enumerated(EnumType.STRING)
+    private EnrollmentStatus status;
+
+    // 대기 순번. 등록된 경우에는 null이다.
+    private Integer waitlistPosition;
+
+    private LocalDateTime enrolledAt;
+}
@@ -0,0 +1,79 @@
+package study.restapi.enrollments;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import study.restapi.accounts.Account;
+import study.restapi.accounts.CurrentUser;
+import study.restapi.common.ErrorsResource;
+import study.restapi.common.Links;
+import study.restapi.events.Event;
+import study.restapi.events.EventController;
+import study.restapi.events.EventReadCache;
+import study.restapi.events.EventStatus;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+@Controller
+@RequestMapping(value = "/api/events/{eventId}/enrollments", produces = MediaTypes.HAL_JSON_VALUE)
+@RequiredArgsConstructor
+public class EnrollmentController {
+    private final EventReadCache eventReadCache;
+    private final EnrollmentService enrollmentService;
+
+    @PostMapping
+    public ResponseEntity enroll(@PathVariable("eventId") Long eventId, @CurrentUser Account account) {
+        Optional<Event> optionalEvent = eventReadCache.findById(eventId);
+        if (optionalEvent.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Event event = optionalEvent.get();
+        if (event.getEventStatus() != EventStatus.BEGAN_ENROLLMENT) {
+            Errors errors = new BeanPropertyBindingResult(event, "event");
+            errors.reject("enrollmentNotOpen", "Enrollment is not open for this event.");
+            return ResponseEntity.badRequest().body(new ErrorsResource(errors));
+        }
+
+        Optional<Enrollment> enrollment;
+        try {
+            enrollment = enrollmentService.enroll(event, account);
+        } catch (CompletionException e) {
+            // 저장이 늦거나 쓰기 스레드가 멈춘 경우. 다시 시도하게 한다.
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (enrollment.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        EnrollmentResource enrollmentResource = new EnrollmentResource(enrollment.get());
+        enrollmentResource.add(Links.link(EnrollmentController.class, "enrollments", eventId));
+        enrollmentResource.add(Links.link(EventController.class, "event", eventId));
+        enrollmentResource.add(new Link("/docs/index.html#resources-enrollments-create").withRel("profile"));
+        return ResponseEntity.status(HttpStatus.CREATED).body(enrollmentResource);
+    }
+
+    @GetMapping
+    public ResponseEntity getSummary(@PathVariable("eventId") Long eventId) {
+        Optional<Event> optionalEvent = eventReadCache.findById(eventId);
+        if (optionalEvent.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        EntityModel<EnrollmentService.Summary> summary = EntityModel.of(enrollmentService.getSummary(optionalEvent.get()));
+        summary.add(Links.link(EnrollmentController.class, IanaLinkRelations.SELF_VALUE, eventId));
+        summary.add(Links.link(EventController.class, "event", eventId));
+        summary.add(new Link("/docs/index.html#resources-enrollments-get").withRel("profile"));
+        return ResponseEntity.ok(summary);
+    }
+}
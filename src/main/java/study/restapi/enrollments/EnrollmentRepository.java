@@ -0,0 +1,20 @@
+package study.restapi.enrollments;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+    long countByEventIdAndStatus(Long eventId, EnrollmentStatus status);
+
+    Optional<Enrollment> findFirstByEventIdAndStatusOrderByWaitlistPositionAsc(Long eventId, EnrollmentStatus status);
+
+    @Query("select max(e.waitlistPosition) from Enrollment e where e.event.id = :eventId")
+    Integer findMaxWaitlistPosition(@Param("eventId") Long eventId);
+
+    @Query("select e.account.id from Enrollment e where e.event.id = :eventId")
+    List<Long> findAccountIds(@Param("eventId") Long eventId);
+}
@@ -0,0 +1,23 @@
+package study.restapi.enrollments;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import org.springframework.hateoas.RepresentationModel;
+
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EnrollmentResource extends RepresentationModel<EnrollmentResource> {
+    private final Long id;
+    private final Long eventId;
+    private final Long accountId;
+    private final EnrollmentStatus status;
+    private final Integer waitlistPosition;
+
+    public EnrollmentResource(Enrollment enrollment) {
+        this.id = enrollment.getId();
+        this.eventId = enrollment.getEvent().getId();
+        this.accountId = enrollment.getAccount().getId();
+        this.status = enrollment.getStatus();
+        this.waitlistPosition = enrollment.getWaitlistPosition();
+    }
+}
@@ -0,0 +1,185 @@
+package study.restapi.enrollments;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import study.restapi.accounts.Account;
+import study.restapi.common.AppProperties;
+import study.restapi.events.Event;
+import study.restapi.events.EventChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 이벤트마다 남은 자리를 메모리의 원자적 카운터로 관리해서 limitOfEnrollment를 넘지 않게 한다.
+// 자리가 없거나 먼저 기다리는 사람이 있으면 대기 순번을 받고, 어느 쪽이든 DB에 저장된 다음에 응답한다.
+// 자리가 생기면(인원 제한 증가, 저장 실패로 돌려받은 자리) 대기 순번 순서대로 등록으로 바꾼다.
+@Service
+public class EnrollmentService {
+    private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentWriter enrollmentWriter;
+    private final Duration writeTimeout;
+    private final Map<Long, Capacity> capacities = new ConcurrentHashMap<>();
+
+    public EnrollmentService(EnrollmentRepository enrollmentRepository, EnrollmentWriter enrollmentWriter,
+                             AppProperties appProperties) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.enrollmentWriter = enrollmentWriter;
+        this.writeTimeout = appProperties.getEnrollmentWriteTimeout();
+    }
+
+    // 이미 등록했거나 대기 중인 계정이면 비어 있는 값을 돌려준다.
+    public Optional<Enrollment> enroll(Event event, Account account) {
+        Capacity capacity = capacity(event);
+        if (!capacity.accounts.add(account.getId())) {
+            return Optional.empty();
+        }
+
+        // 기다리는 사람이 있으면 새로 온 요청이 먼저 자리를 가져가지 않는다.
+        boolean accepted = capacity.waiting.get() == 0 && capacity.tryAcquire();
+        if (!accepted) {
+            capacity.waiting.incrementAndGet();
+        }
+        Enrollment enrollment = Enrollment.builder()
+                .event(event)
+                .account(account)
+                .status(accepted ? EnrollmentStatus.ACCEPTED : EnrollmentStatus.WAITING)
+                .waitlistPosition(accepted ? null : capacity.lastPosition.incrementAndGet())
+                .enrolledAt(LocalDateTime.now())
+                .build();
+        Enrollment saved;
+        try {
+            saved = enrollmentWriter.write(enrollment).get(writeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // 저장하지 못했으면 잡아둔 자리를 돌려준다. 대기 순번은 비워둔 채로 둔다.
+            if (accepted) {
+                capacity.release();
+                promoteWaiting(event.getId(), capacity);
+            } else {
+                capacity.waiting.decrementAndGet();
+            }
+            capacity.accounts.remove(account.getId());
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            // 늦게라도 저장될 수 있으므로 자리는 돌려주지 않는다. (초과 등록보다 빈자리가 낫다)
+            throw new CompletionException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        // 저장되는 동안 자리가 생겼는데 이 대기 등록이 아직 DB에 없어서 올리지 못했을 수 있다.
+        if (!accepted && capacity.remaining.get() > 0) {
+            promoteWaiting(event.getId(), capacity);
+        }
+        return Optional.of(saved);
+    }
+
+    public Summary getSummary(Event event) {
+        Capacity capacity = capacity(event);
+        return new Summary(capacity.limit, capacity.limit - capacity.remaining.get(), capacity.waiting.get());
+    }
+
+    // 등록 인원 제한이 바뀌면 남은 자리도 그만큼 조정하고, 늘어난 자리는 기다리던 순서대로 채운다.
+    @EventListener
+    public void onEventChanged(EventChangedEvent changedEvent) {
+        Event event = changedEvent.getEvent();
+        Capacity capacity = capacities.get(event.getId());
+        if (capacity != null) {
+            capacity.resize(event.getLimitOfEnrollment());
+            promoteWaiting(event.getId(), capacity);
+        }
+    }
+
+    // 남은 자리마다 가장 앞 순번의 대기 등록을 등록으로 바꾼다. 아직 저장 중이라 DB에 없으면 저장된 뒤에 다시 시도한다.
+    private void promoteWaiting(Long eventId, Capacity capacity) {
+        synchronized (capacity) {
+            while (capacity.waiting.get() > 0 && capacity.tryAcquire()) {
+                Optional<Enrollment> next = enrollmentRepository
+                        .findFirstByEventIdAndStatusOrderByWaitlistPositionAsc(eventId, EnrollmentStatus.WAITING);
+                if (next.isEmpty()) {
+                    capacity.release();
+                    return;
+                }
+                Enrollment enrollment = next.get();
+                enrollment.setStatus(EnrollmentStatus.ACCEPTED);
+                enrollment.setWaitlistPosition(null);
+                try {
+                    enrollmentRepository.save(enrollment);
+                } catch (RuntimeException e) {
+                    capacity.release();
+                    throw e;
+                }
+                capacity.waiting.decrementAndGet();
+            }
+        }
+    }
+
+    private Capacity capacity(Event event) {
+        return capacities.computeIfAbsent(event.getId(), id -> {
+            int accepted = (int) enrollmentRepository.countByEventIdAndStatus(id, EnrollmentStatus.ACCEPTED);
+            int waiting = (int) enrollmentRepository.countByEventIdAndStatus(id, EnrollmentStatus.WAITING);
+            Integer lastPosition = enrollmentRepository.findMaxWaitlistPosition(id);
+            Capacity capacity = new Capacity(event.getLimitOfEnrollment(), accepted, waiting,
+                    lastPosition == null ? 0 : lastPosition);
+            capacity.accounts.addAll(enrollmentRepository.findAccountIds(id));
+            return capacity;
+        });
+    }
+
+    private static class Capacity {
+        private final AtomicInteger remaining;
+        // 지금 기다리는 인원과 마지막으로 준 대기 순번. 등록으로 바뀌어도 순번은 다시 쓰지 않는다.
+        private final AtomicInteger waiting;
+        private final AtomicInteger lastPosition;
+        private final Set<Long> accounts = ConcurrentHashMap.newKeySet();
+        private volatile int limit;
+
+        private Capacity(int limit, int accepted, int waiting, int lastPosition) {
+            this.limit = limit;
+            this.remaining = new AtomicInteger(limit - accepted);
+            this.waiting = new AtomicInteger(waiting);
+            this.lastPosition = new AtomicInteger(lastPosition);
+        }
+
+        // 남은 자리가 있을 때만 하나 줄인다.
+        private boolean tryAcquire() {
+            while (true) {
+                int current = remaining.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release() {
+            remaining.incrementAndGet();
+        }
+
+        private synchronized void resize(int newLimit) {
+            remaining.addAndGet(newLimit - limit);
+            limit = newLimit;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Summary {
+        private final int limitOfEnrollment;
+        private final int accepted;
+        private final int waiting;
+    }
+}
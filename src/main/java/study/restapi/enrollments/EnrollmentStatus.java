@@ -0,0 +1,5 @@
+package study.restapi.enrollments;
+
+public enum EnrollmentStatus {
+    ACCEPTED, WAITING
+}
@@ -0,0 +1,155 @@
+package study.restapi.enrollments;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.restapi.accounts.Account;
+import study.restapi.common.AppProperties;
+import study.restapi.events.Event;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// 동시에 들어온 등록을 모아서 한 트랜잭션으로 저장하고(group commit) 저장이 끝나면 각 요청에 알려준다.
+// 묶음 저장이 실패하면 하나씩 다시 저장해서 문제가 있는 등록만 실패시킨다.
+@Slf4j
+@Component
+public class EnrollmentWriter implements InitializingBean, DisposableBean {
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final BlockingQueue<PendingWrite> writes;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public EnrollmentWriter(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                            AppProperties appProperties) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = appProperties.getEnrollmentWriteBatchSize();
+        this.flushInterval = appProperties.getEnrollmentWriteInterval();
+        this.writes = new LinkedBlockingQueue<>(appProperties.getEnrollmentWriteQueueSize());
+        this.writer = new Thread(this::writeLoop, "enrollment-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        writer.start();
+    }
+
+    // 쓰기 스레드가 멈췄거나 큐가 가득 찼으면 큐에 넣지 않고 바로 실패시킨다. (요청은 503으로 다시 시도하게 된다)
+    public CompletableFuture<Enrollment> write(Enrollment enrollment) {
+        if (!running || !writer.isAlive()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Enrollment writer is stopped"));
+        }
+        PendingWrite write = new PendingWrite(enrollment);
+        if (!writes.offer(write)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Enrollment write queue is full"));
+        }
+        // 넣는 사이에 멈췄다면 남은 요청은 failPending이 실패시킨다.
+        if (!running) {
+            failPending();
+        }
+        return write.future;
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !writes.isEmpty()) {
+                try {
+                    PendingWrite first = writes.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    writes.drainTo(batch, batchSize - 1);
+                    flush(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                } catch (Throwable t) {
+                    // Error로 죽더라도 기다리는 요청이 없도록 한다.
+                    log.error("Enrollment writer stopped", t);
+                    batch.forEach(write -> write.future.completeExceptionally(t));
+                    throw t;
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            running = false;
+            failPending();
+        }
+    }
+
+    private void failPending() {
+        PendingWrite write;
+        while ((write = writes.poll()) != null) {
+            write.future.completeExceptionally(new IllegalStateException("Enrollment writer is stopped"));
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        try {
+            persist(batch);
+            batch.forEach(write -> write.future.complete(write.enrollment));
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} enrollments at once, retrying one by one", batch.size(), e);
+            for (PendingWrite write : batch) {
+                write.enrollment.setId(null);
+                try {
+                    persist(List.of(write));
+                    write.future.complete(write.enrollment);
+                } catch (RuntimeException ex) {
+                    write.future.completeExceptionally(ex);
+                }
+            }
+        }
+    }
+
+    private void persist(List<PendingWrite> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (PendingWrite write : batch) {
+                Enrollment enrollment = write.enrollment;
+                // 요청 스레드에서 받은 이벤트와 계정은 분리된 객체이므로 id로 참조만 만든다.
+                enrollment.setEvent(entityManager.getReference(Event.class, enrollment.getEvent().getId()));
+                enrollment.setAccount(entityManager.getReference(Account.class, enrollment.getAccount().getId()));
+                entityManager.persist(enrollment);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failPending();
+    }
+
+    private static class PendingWrite {
+        private final Enrollment enrollment;
+        private final CompletableFuture<Enrollment> future = new CompletableFuture<>();
+
+        private PendingWrite(Enrollment enrollment) {
+            this.enrollment = enrollment;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import study.restapi.accounts.AccountSerializer;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 
 @Builder
@@ -16,11 +17,22 @@ import java.time.LocalDateTime;
 @Setter
 @EqualsAndHashCode(of = "id")
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_event_status_begin_event", columnList = "eventStatus, beginEventDateTime"),
+        @Index(name = "idx_event_free_offline_begin_event", columnList = "free, offline, beginEventDateTime"),
+        @Index(name = "idx_event_begin_event", columnList = "beginEventDateTime"),
+        @Index(name = "idx_event_begin_enrollment", columnList = "beginEnrollmentDateTime"),
+        @Index(name = "idx_event_base_price", columnList = "basePrice")
+})
 public class Event {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_seq")
+    @SequenceGenerator(name = "event_seq", sequenceName = "event_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long version;
+
     private String name;
     private String description;
     private String location;
@@ -38,10 +50,19 @@ public class Event {
     @Enumerated(EnumType.STRING)
     private EventStatus eventStatus = EventStatus.DREFT;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonSerialize(using = AccountSerializer.class)
     private Account account;
 
+    // 프록시의 id만 비교하므로 계정을 추가로 조회하지 않는다.
+    public boolean isOwnedBy(Account account) {
+        return isOwnedBy(this.account == null ? null : this.account.getId(), account);
+    }
+
+    static boolean isOwnedBy(Long ownerId, Account account) {
+        return ownerId != null && account != null && Objects.equals(ownerId, account.getId());
+    }
+
     public void update() {
         if (this.basePrice == 0 && this.maxPrice == 0) {
             this.free = true;
@@ -0,0 +1,33 @@
+package study.restapi.events;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.Errors;
+
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Relation(collectionRelation = "results")
+public class EventBatchResult extends RepresentationModel<EventBatchResult> {
+    private final int index;
+    private final int status;
+    private final Long id;
+    private final Errors errors;
+
+    private EventBatchResult(int index, HttpStatus status, Long id, Errors errors) {
+        this.index = index;
+        this.status = status.value();
+        this.id = id;
+        this.errors = errors;
+    }
+
+    public static EventBatchResult created(int index, Long id) {
+        return new EventBatchResult(index, HttpStatus.CREATED, id, null);
+    }
+
+    public static EventBatchResult badRequest(int index, Errors errors) {
+        return new EventBatchResult(index, HttpStatus.BAD_REQUEST, null, errors);
+    }
+}
@@ -0,0 +1,15 @@
+package study.restapi.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class EventChangedEvent {
+    private final Event event;
+    private final Type type;
+
+    public enum Type {
+        CREATED, UPDATED
+    }
+}
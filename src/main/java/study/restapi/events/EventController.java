@@ -1,36 +1,78 @@
 package study.restapi.events;
 
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import study.restapi.accounts.Account;
 import study.restapi.accounts.CurrentUser;
+import study.restapi.common.AppProperties;
+import study.restapi.common.BinaryMediaTypes;
+import study.restapi.common.ETags;
+import study.restapi.common.Links;
 import study.restapi.common.ErrorsResource;
+import study.restapi.common.SliceResource;
+import study.restapi.common.SliceResource.SliceMetadata;
 
+import javax.persistence.Tuple;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import java.util.Set;
 
 @Controller
-@RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE)
+@RequestMapping(value = "/api/events",
+        produces = {MediaTypes.HAL_JSON_VALUE, BinaryMediaTypes.CBOR_VALUE, BinaryMediaTypes.SMILE_VALUE})
 @RequiredArgsConstructor
 public class EventController {
     private final EventRepository eventRepository;
-    private final ModelMapper modelMapper;
+    private final EventMapper eventMapper;
     private final EventValidator eventValidator;
+    private final EventCountCache eventCountCache;
+    private final EventReadCache eventReadCache;
+    private final EventRepresentationCache eventRepresentationCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EventImporter eventImporter;
+    private final EventExporter eventExporter;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventTimeIndex eventTimeIndex;
+    private final AppProperties appProperties;
 
     @PostMapping
     public ResponseEntity createEvent(@RequestBody @Valid EventDto eventDto,
@@ -46,58 +88,445 @@ public class EventController {
             return badRequest(errors);
         }
 
-        Event event = modelMapper.map(eventDto, Event.class);
+        Event event = eventMapper.toEvent(eventDto);
         event.update();
         event.setAccount(account);
         Event newEvent = eventRepository.save(event);
-        WebMvcLinkBuilder selfLinkBuilder = linkTo(EventController.class).slash(newEvent.getId());
-        URI createdUri = selfLinkBuilder.toUri();
+        eventPublisher.publishEvent(new EventChangedEvent(newEvent, EventChangedEvent.Type.CREATED));
+        String selfHref = Links.href(EventController.class, newEvent.getId());
+        URI createdUri = URI.create(selfHref);
 
 //        EventResource eventResource = new EventResource(event);
         EntityModel eventResource = EntityModel.of(newEvent);
-        eventResource.add(linkTo(EventController.class).withRel("query-events"));
-        eventResource.add(selfLinkBuilder.withSelfRel());
-        eventResource.add(selfLinkBuilder.withRel("update-event"));
+        eventResource.add(Links.link(EventController.class, "query-events"));
+        eventResource.add(new Link(selfHref).withSelfRel());
+        eventResource.add(new Link(selfHref).withRel("update-event"));
         eventResource.add(new Link("/docs/index.html#resources-events-create").withRel("profile"));
 
         return ResponseEntity.created(createdUri).body(eventResource);
     }
 
+    // 유효한 이벤트만 한 트랜잭션에서 JDBC 배치로 저장하고 항목별 결과를 돌려준다.
+    @PostMapping("/batch")
+    public ResponseEntity createEvents(@RequestBody List<EventDto> eventDtos,
+                                       @CurrentUser Account account) {
+        if (eventDtos.size() > appProperties.getEventBatchMaxSize()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+
+        EventBatchResult[] results = new EventBatchResult[eventDtos.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < eventDtos.size(); i++) {
+            EventDto eventDto = eventDtos.get(i);
+            if (eventDto == null) {
+                Errors errors = new MapBindingResult(new HashMap<>(), "eventDto[" + i + "]");
+                errors.reject("nullEvent", "Event must not be null.");
+                results[i] = EventBatchResult.badRequest(i, errors);
+                continue;
+            }
+            Errors errors = eventValidator.validate(eventDto, "eventDto[" + i + "]");
+            if (errors.hasErrors()) {
+                results[i] = EventBatchResult.badRequest(i, errors);
+                continue;
+            }
+            Event event = eventMapper.toEvent(eventDto);
+            event.update();
+            event.setAccount(account);
+            indexes.add(i);
+            events.add(event);
+        }
+
+        List<Event> newEvents = eventRepository.saveAll(events);
+        for (int i = 0; i < newEvents.size(); i++) {
+            Event newEvent = newEvents.get(i);
+            int index = indexes.get(i);
+            results[index] = EventBatchResult.created(index, newEvent.getId());
+            results[index].add(Links.link(EventController.class, IanaLinkRelations.SELF_VALUE, newEvent.getId()));
+            eventPublisher.publishEvent(new EventChangedEvent(newEvent, EventChangedEvent.Type.CREATED));
+        }
+
+        CollectionModel<EventBatchResult> entityModels = CollectionModel.of(Arrays.asList(results));
+        entityModels.add(Links.link(EventController.class, "query-events"));
+        entityModels.add(new Link("/docs/index.html#resources-events-batch-create").withRel("profile"));
+        return ResponseEntity.ok(entityModels);
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity importEvents(InputStream body, @CurrentUser Account account) throws IOException {
+        EventImportResult result = eventImporter.importEvents(body, account);
+        result.add(Links.link(EventController.class, "query-events"));
+        result.add(new Link("/docs/index.html#resources-events-import").withRel("profile"));
+        return ResponseEntity.ok(result);
+    }
+
+    // queryEvents와 마찬가지로 모든 이벤트를 누구나 내려받을 수 있다.
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public void exportEvents(@RequestParam(defaultValue = "ndjson") String format,
+                             HttpServletResponse response) throws IOException {
+        if ("csv".equals(format)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=events.csv");
+            eventExporter.exportCsv(response.getOutputStream());
+        } else if ("ndjson".equals(format)) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=events.ndjson");
+            eventExporter.exportNdjson(response.getOutputStream());
+        } else {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+        }
+    }
+
+    // 대시보드처럼 여러 이벤트를 한 번에 조회한다. IN 목록이 너무 길어지지 않게 나눠서 조회하고 요청 순서를 유지한다.
+    @GetMapping(params = "ids")
+    public ResponseEntity getEvents(@RequestParam("ids") List<Long> ids, @CurrentUser Account currentUser) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.size() > appProperties.getEventMultiGetMaxSize()) {
+            return invalidQuery(ids, "tooManyIds",
+                    "At most " + appProperties.getEventMultiGetMaxSize() + " ids can be requested at once.");
+        }
+
+        List<Long> requested = new ArrayList<>(uniqueIds);
+        Map<Long, Event> found = new HashMap<>();
+        int chunkSize = appProperties.getEventMultiGetChunkSize();
+        for (int from = 0; from < requested.size(); from += chunkSize) {
+            List<Long> chunk = requested.subList(from, Math.min(from + chunkSize, requested.size()));
+            eventRepository.findAllById(chunk).forEach(event -> found.put(event.getId(), event));
+        }
+
+        List<EventResource> content = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Event event = found.get(id);
+            if (event == null) {
+                missing.add(id);
+                continue;
+            }
+            EventResource eventResource = new EventResource(event);
+            if (event.isOwnedBy(currentUser)) {
+                eventResource.add(Links.link(EventController.class, "update-event", id));
+            }
+            content.add(eventResource);
+        }
+
+        EventsByIdResource entityModels = new EventsByIdResource(content, missing);
+        entityModels.add(new Link(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+        entityModels.add(new Link("/docs/index.html#resources-events-multi-get").withRel("profile"));
+        return ResponseEntity.ok(entityModels);
+    }
+
     @GetMapping
     public ResponseEntity queryEvents(Pageable pageable,
                                       PagedResourcesAssembler<Event> assembler,
-                                      @CurrentUser Account account) {
-        Page<Event> page = eventRepository.findAll(pageable);
+                                      @RequestParam(value = "after", required = false) String after,
+                                      @RequestParam(value = "slice", required = false) Boolean slice,
+                                      @RequestParam(value = "q", required = false) String q,
+                                      @RequestParam(value = "fields", required = false) String fields,
+                                      PagedResourcesAssembler<EventFieldsResource> fieldsAssembler,
+                                      EventSearchCondition condition,
+                                      @CurrentUser Account account,
+                                      WebRequest webRequest) {
+        if (fields != null) {
+            if (q != null || after != null || slice != null) {
+                return invalidQuery(condition, "fieldsWithUnsupportedParameter",
+                        "fields cannot be combined with q, after or slice; use filters with page, size and sort.");
+            }
+            return queryEventFields(fields, pageable, condition, fieldsAssembler, account);
+        }
+        if (q != null) {
+            return searchEvents(q, pageable, condition, assembler, account, webRequest);
+        }
+        if (after != null) {
+            return queryEventsAfter(after, pageable, condition, account, webRequest);
+        }
+        if (slice != null ? slice : appProperties.isEventSlicePaging()) {
+            return queryEventSlice(pageable, condition, account, webRequest);
+        }
+
+        Page<Event> page = eventRepository.findAll(condition.toSpecification(), pageable);
+        return pagedResponse(page, assembler, account, webRequest);
+    }
+
+    // 고른 필드만 select해서 응답한다. 필터와 기본 페이지 방식만 지원한다.
+    private ResponseEntity queryEventFields(String fields, Pageable pageable, EventSearchCondition condition,
+                                            PagedResourcesAssembler<EventFieldsResource> assembler, Account account) {
+        EventFields eventFields;
+        try {
+            eventFields = EventFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return unknownField(fields, e);
+        }
+        Specification<Event> spec = condition.toSpecification();
+        List<EventFieldsResource> content = new ArrayList<>();
+        for (Tuple tuple : eventRepository.findFields(spec, eventFields.getNames(), pageable)) {
+            EventFieldsResource eventResource = new EventFieldsResource(tuple, eventFields);
+            if (account != null && eventResource.isOwnedBy(account.getId())) {
+                eventResource.add(Links.link(EventController.class, "update-event", eventResource.getEventId()));
+            }
+            content.add(eventResource);
+        }
+        Page<EventFieldsResource> page = new PageImpl<>(content, pageable, eventRepository.count(spec));
+
+        var entityModels = assembler.toModel(page, r -> r);
+        entityModels.add(new Link("/docs/index.html#resources-events-list").withRel("profile"));
+        if (account != null) {
+            entityModels.add(Links.link(EventController.class, "create-event"));
+        }
+        return ResponseEntity.ok(entityModels);
+    }
+
+    // 검색어가 있으면 메모리 역색인으로 순위를 매기고 요청한 페이지까지만 골라서 그 페이지의 이벤트만 조회한다.
+    // 순위가 곧 정렬이라 필터나 정렬과 같이 쓰면 조용히 무시하지 않고 400으로 알린다.
+    private ResponseEntity searchEvents(String q, Pageable pageable, EventSearchCondition condition,
+                                        PagedResourcesAssembler<Event> assembler, Account account,
+                                        WebRequest webRequest) {
+        if (!condition.isEmpty() || pageable.getSort().isSorted()) {
+            return invalidQuery(condition, "searchWithFilter",
+                    "q cannot be combined with filters or sort; results are ordered by relevance.");
+        }
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        EventSearchIndex.Hits hits = eventSearchIndex.search(q, limit);
+        return pagedResponse(pageOf(hits.getIds(), pageable, hits.getTotal()), assembler, account, webRequest);
+    }
+
+    // 주어진 기간과 이벤트 기간(또는 등록 기간)이 겹치는 이벤트를 시작 시각 순으로 조회한다.
+    @GetMapping("/overlapping")
+    public ResponseEntity queryOverlappingEvents(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "type", defaultValue = "EVENT") EventTimeIndex.Range type,
+            Pageable pageable,
+            PagedResourcesAssembler<Event> assembler,
+            @CurrentUser Account account,
+            WebRequest webRequest) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Long> ids = eventTimeIndex.findOverlapping(type, from, to);
+        return pagedResponse(pageOf(ids, pageable), assembler, account, webRequest);
+    }
+
+    // 순서가 정해진 id 목록에서 요청한 페이지만 잘라서 조회하고 순서를 유지한다.
+    private Page<Event> pageOf(List<Long> ids, Pageable pageable) {
+        return pageOf(ids, pageable, ids.size());
+    }
+
+    private Page<Event> pageOf(List<Long> ids, Pageable pageable, long total) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+
+        Map<Long, Event> found = new HashMap<>();
+        eventRepository.findAllById(pageIds).forEach(event -> found.put(event.getId(), event));
+        List<Event> content = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            Event event = found.get(id);
+            if (event != null) {
+                content.add(event);
+            }
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private ResponseEntity pagedResponse(Page<Event> page, PagedResourcesAssembler<Event> assembler,
+                                         Account account, WebRequest webRequest) {
+        String eTag = listETag(page.getContent(), page.getTotalElements(), account != null);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         var entityModels = assembler.toModel(page, e -> new EventResource(e));
         entityModels.add(new Link("/docs/index.html#resources-events-list").withRel("profile"));
         if (account != null) {
-            entityModels.add(linkTo(EventController.class).withRel("create-event"));
+            entityModels.add(Links.link(EventController.class, "create-event"));
+        }
+        return ResponseEntity.ok(entityModels);
+    }
+
+    // count 쿼리 없이 size + 1개를 조회해서 다음 페이지 여부만 판단한다.
+    private ResponseEntity queryEventSlice(Pageable pageable, EventSearchCondition condition,
+                                           Account account, WebRequest webRequest) {
+        Slice<Event> slice = eventRepository.findSlice(condition.toSpecification(), pageable);
+        // 대략적인 개수는 전체 이벤트 기준이라 필터가 있으면 내려주지 않는다. 본문에 들어가므로 ETag에도 넣는다.
+        Long approximateCount = condition.isEmpty() ? eventCountCache.getApproximateCount() : null;
+        String eTag = listETag(slice.getContent(), slice.hasNext(), approximateCount, account != null);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        List<EventResource> content = slice.map(e -> new EventResource(e)).getContent();
+        SliceMetadata metadata = SliceMetadata.of(slice, approximateCount);
+        SliceResource<EventResource> entityModels = new SliceResource<>(content, metadata);
+        UriComponentsBuilder current = ServletUriComponentsBuilder.fromCurrentRequest();
+        entityModels.add(new Link(current.toUriString()).withSelfRel());
+        if (slice.hasPrevious()) {
+            String prev = current.cloneBuilder()
+                    .replaceQueryParam("page", slice.getNumber() - 1)
+                    .toUriString();
+            entityModels.add(new Link(prev).withRel(IanaLinkRelations.PREV));
+        }
+        if (slice.hasNext()) {
+            String next = current.cloneBuilder()
+                    .replaceQueryParam("page", slice.getNumber() + 1)
+                    .toUriString();
+            entityModels.add(new Link(next).withRel(IanaLinkRelations.NEXT));
+        }
+        entityModels.add(new Link("/docs/index.html#resources-events-list").withRel("profile"));
+        if (account != null) {
+            entityModels.add(Links.link(EventController.class, "create-event"));
+        }
+        return ResponseEntity.ok(entityModels);
+    }
+
+    // OFFSET, count 쿼리 없이 id 기준으로 다음 페이지를 찾는다.
+    private ResponseEntity queryEventsAfter(String after, Pageable pageable, EventSearchCondition condition,
+                                            Account account, WebRequest webRequest) {
+        Long cursor;
+        try {
+            cursor = EventCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Sort.Order idOrder = pageable.getSort().getOrderFor("id");
+        boolean descending = idOrder != null && idOrder.isDescending();
+        Pageable seek = PageRequest.of(0, pageable.getPageSize(),
+                descending ? Sort.by("id").descending() : Sort.by("id"));
+
+        Specification<Event> spec = condition.toSpecification();
+        if (cursor != null) {
+            spec = spec.and(descending ? EventSearchCondition.idLessThan(cursor) : EventSearchCondition.idGreaterThan(cursor));
+        }
+        Slice<Event> slice = eventRepository.findSlice(spec, seek);
+        String eTag = listETag(slice.getContent(), slice.hasNext(), account != null);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        List<EventResource> content = slice.map(e -> new EventResource(e)).getContent();
+        CollectionModel<EventResource> entityModels = CollectionModel.of(content);
+        UriComponentsBuilder current = ServletUriComponentsBuilder.fromCurrentRequest();
+        entityModels.add(new Link(current.toUriString()).withSelfRel());
+        if (slice.hasNext()) {
+            Event last = content.get(content.size() - 1).getContent();
+            String next = current.cloneBuilder()
+                    .replaceQueryParam("after", EventCursor.encode(last.getId()))
+                    .toUriString();
+            entityModels.add(new Link(next).withRel(IanaLinkRelations.NEXT));
+        }
+        entityModels.add(new Link("/docs/index.html#resources-events-list").withRel("profile"));
+        if (account != null) {
+            entityModels.add(Links.link(EventController.class, "create-event"));
         }
         return ResponseEntity.ok(entityModels);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity getEvent(@PathVariable("id") Long id,
-                                   @CurrentUser Account currentUser) {
-        Optional<Event> optionalEvent = eventRepository.findById(id);
+                                   @RequestParam(value = "fields", required = false) String fields,
+                                   @CurrentUser Account currentUser,
+                                   WebRequest webRequest) {
+        if (fields != null) {
+            return getEventFields(id, fields, currentUser);
+        }
+        MediaType mediaType = negotiate(webRequest);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<EventVersion> optionalVersion = eventReadCache.findVersion(id);
+            if (optionalVersion.isPresent()) {
+                EventVersion version = optionalVersion.get();
+                String eTag = version.eTag(version.isOwnedBy(currentUser), mediaType);
+                if (webRequest.checkNotModified(eTag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+                }
+            }
+        }
+
+        Optional<Event> optionalEvent = eventReadCache.findById(id);
         if (optionalEvent.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         Event event = optionalEvent.get();
+        boolean owner = event.isOwnedBy(currentUser);
+        String eTag = EventVersion.of(event).eTag(owner, mediaType);
+        // 캐시된 바이트는 HAL+JSON뿐이므로 CBOR, Smile 요청은 메시지 컨버터에 맡긴다.
+        if (!MediaTypes.HAL_JSON.equals(mediaType)) {
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(eventResource(event, owner));
+        }
+        byte[] body = eventRepresentationCache.get(event, owner, () -> eventResource(event, owner));
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(MediaTypes.HAL_JSON)
+                .body(body);
+    }
+
+    private EventResource eventResource(Event event, boolean owner) {
         EventResource eventResource = new EventResource(event);
         eventResource.add(new Link("/docs/index.html#resources-events-get").withRel("profile"));
-        if(event.getAccount().equals(currentUser)){
-            eventResource.add(linkTo(EventController.class).slash(event.getId()).withRel("update-event"));
+        if (owner) {
+            eventResource.add(Links.link(EventController.class, "update-event", event.getId()));
         }
-        return ResponseEntity.ok(eventResource);
+        return eventResource;
+    }
+
+    // Accept 헤더에서 가장 먼저 고를 표현을 HAL+JSON, CBOR, Smile 중에서 고른다. 헤더가 없거나 */*이면 HAL+JSON이다.
+    private MediaType negotiate(WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return MediaTypes.HAL_JSON;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaTypes.HAL_JSON;
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(MediaTypes.HAL_JSON)) {
+                return MediaTypes.HAL_JSON;
+            }
+            if (mediaType.isCompatibleWith(BinaryMediaTypes.CBOR)) {
+                return BinaryMediaTypes.CBOR;
+            }
+            if (mediaType.isCompatibleWith(BinaryMediaTypes.SMILE)) {
+                return BinaryMediaTypes.SMILE;
+            }
+        }
+        return MediaTypes.HAL_JSON;
     }
 
 
+    // 캐시를 거치지 않고 고른 필드만 select한다.
+    private ResponseEntity getEventFields(Long id, String fields, Account currentUser) {
+        EventFields eventFields;
+        try {
+            eventFields = EventFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return unknownField(fields, e);
+        }
+        Optional<Tuple> tuple = eventRepository.findFieldsById(id, eventFields.getNames());
+        if (tuple.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        EventFieldsResource eventResource = new EventFieldsResource(tuple.get(), eventFields);
+        eventResource.add(new Link("/docs/index.html#resources-events-get").withRel("profile"));
+        if (currentUser != null && eventResource.isOwnedBy(currentUser.getId())) {
+            eventResource.add(Links.link(EventController.class, "update-event", id));
+        }
+        return ResponseEntity.ok(eventResource);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity updateEvent(@PathVariable("id") Long id,
                                       @RequestBody @Valid EventDto eventDto,
                                       Errors errors,
-                                      @CurrentUser Account currentUser) {
+                                      @CurrentUser Account currentUser,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Optional<Event> optionalEvent = eventRepository.findById(id);
         if (optionalEvent.isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -112,20 +541,89 @@ public class EventController {
         }
 
         Event event = optionalEvent.get();
-        if(!event.getAccount().equals(currentUser)){
+        if (!event.isOwnedBy(currentUser)) {
             return new ResponseEntity(HttpStatus.UNAUTHORIZED);
         }
 
-        modelMapper.map(eventDto, event); // 어디에서 -> 어디로
-        Event updateEvent = eventRepository.save(event);
+        EventVersion currentVersion = EventVersion.of(event);
+        if (ifMatch != null && !ETags.strongMatches(ifMatch, currentVersion.eTags())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(currentVersion.eTag(true)).build();
+        }
+
+        eventMapper.map(eventDto, event); // 어디에서 -> 어디로
+        Event updateEvent;
+        int attempt = 0;
+        while (true) {
+            try {
+                updateEvent = eventRepository.save(event);
+                break;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // If-Match로 버전을 지정했다면 다시 시도하지 않는다.
+                if (ifMatch != null || ++attempt > appProperties.getEventUpdateMaxRetries()) {
+                    return conflict(id);
+                }
+            }
+
+            // 롤백하면서 영속성 컨텍스트가 비워지므로 최신 상태를 다시 읽고 요청한 필드만 다시 덮어쓴다.
+            // 요청에 없는 필드(상태, 주최자 등)는 동시에 바뀐 값이 유지된다.
+            optionalEvent = eventRepository.findById(id);
+            if (optionalEvent.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            event = optionalEvent.get();
+            if (!event.isOwnedBy(currentUser)) {
+                return new ResponseEntity(HttpStatus.UNAUTHORIZED);
+            }
+            eventMapper.map(eventDto, event);
+        }
+        eventPublisher.publishEvent(new EventChangedEvent(updateEvent, EventChangedEvent.Type.UPDATED));
 
         EventResource eventResource = new EventResource(updateEvent);
         eventResource.add(new Link("/docs/index.html#resources-events-update").withRel("profile"));
 
-        return ResponseEntity.ok(eventResource);
+        return ResponseEntity.ok()
+                .eTag(EventVersion.of(updateEvent).eTag(true))
+                .body(eventResource);
+    }
+
+    // 목록에 담긴 이벤트들의 id, 버전과 페이지 정보로 ETag를 만든다.
+    private String listETag(List<Event> events, Object... pageInfo) {
+        StringBuilder value = new StringBuilder();
+        for (Object info : pageInfo) {
+            value.append(info).append(';');
+        }
+        for (Event event : events) {
+            value.append(event.getId()).append('.').append(event.getVersion()).append(';');
+        }
+        return ETags.hash(value.toString());
+    }
+
+    // 충돌하면 현재 버전을 ETag와 본문에 담아서 돌려준다.
+    private ResponseEntity conflict(Long id) {
+        Optional<Event> current = eventRepository.findById(id);
+        if (current.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Event event = current.get();
+        EventResource eventResource = new EventResource(event);
+        eventResource.add(new Link("/docs/index.html#resources-events-update").withRel("profile"));
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .eTag(EventVersion.of(event).eTag(true))
+                .body(eventResource);
     }
 
     private ResponseEntity badRequest(Errors errors) {
         return ResponseEntity.badRequest().body(new ErrorsResource(errors));
     }
+
+    private ResponseEntity unknownField(String fields, IllegalArgumentException e) {
+        return invalidQuery(fields, "unknownField", e.getMessage() + ". Allowed fields: " + EventFields.ALLOWED);
+    }
+
+    // 같이 쓸 수 없는 쿼리 파라미터처럼 특정 필드에 묶이지 않는 오류를 알린다.
+    private ResponseEntity invalidQuery(Object target, String code, String message) {
+        Errors errors = new BeanPropertyBindingResult(target, "query");
+        errors.reject(code, message);
+        return badRequest(errors);
+    }
 }
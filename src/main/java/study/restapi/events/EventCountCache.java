@@ -0,0 +1,25 @@
+package study.restapi.events;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// count(*)를 매 요청마다 실행하지 않도록 대략적인 전체 개수를 주기적으로 갱신한다.
+@Component
+@RequiredArgsConstructor
+public class EventCountCache {
+    private final EventRepository eventRepository;
+    private final AtomicLong count = new AtomicLong(-1);
+
+    @Scheduled(fixedDelayString = "${my-app.event-count-refresh-interval:60000}")
+    public void refresh() {
+        count.set(eventRepository.count());
+    }
+
+    public Long getApproximateCount() {
+        long current = count.get();
+        return current < 0 ? null : current;
+    }
+}
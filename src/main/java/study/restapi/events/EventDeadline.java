@@ -0,0 +1,19 @@
+package study.restapi.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@RequiredArgsConstructor
+public class EventDeadline {
+    private final Long id;
+    private final LocalDateTime deadline;
+
+    // (시각, id) 순서로 이 항목이 주어진 항목보다 앞에 오는지 확인한다.
+    public boolean isBefore(Long id, LocalDateTime deadline) {
+        int compared = this.deadline.compareTo(deadline);
+        return compared < 0 || (compared == 0 && this.id < id);
+    }
+}
@@ -0,0 +1,124 @@
+package study.restapi.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import study.restapi.common.AppProperties;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// 전체 이벤트를 커서로 한 건씩 읽어서 바로 응답 스트림에 쓴다.
+// 쓴 엔티티는 영속성 컨텍스트에서 떼어내기 때문에 이벤트 수와 관계없이 메모리 사용량이 일정하다.
+@Component
+public class EventExporter {
+    private static final String CSV_HEADER = "id,name,description,location,basePrice,maxPrice,limitOfEnrollment,"
+            + "beginEnrollmentDateTime,closeEnrollmentDateTime,beginEventDateTime,endEventDateTime,"
+            + "offline,free,eventStatus,account\n";
+
+    private final EventRepository eventRepository;
+    private final AppProperties appProperties;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final ObjectMapper objectMapper;
+
+    public EventExporter(EventRepository eventRepository, AppProperties appProperties, EntityManager entityManager,
+                         ObjectMapper objectMapper) {
+        this.eventRepository = eventRepository;
+        this.appProperties = appProperties;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(Event.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setRootValueSeparator(null);
+        try (Stream<Event> events = eventRepository.streamAll(appProperties.getEventStreamFetchSize())) {
+            Iterator<Event> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                Event event = iterator.next();
+                writer.writeValue(gen, event);
+                gen.writeRaw('\n');
+                entityManager.detach(event);
+            }
+        }
+        gen.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportCsv(OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write(CSV_HEADER);
+        try (Stream<Event> events = eventRepository.streamAll(appProperties.getEventStreamFetchSize())) {
+            events.forEach(event -> {
+                try {
+                    writeCsv(csv, event);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                entityManager.detach(event);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        csv.flush();
+    }
+
+    private void writeCsv(Writer csv, Event event) throws IOException {
+        csv.write(String.valueOf(event.getId()));
+        csv.write(',');
+        csv.write(escape(event.getName()));
+        csv.write(',');
+        csv.write(escape(event.getDescription()));
+        csv.write(',');
+        csv.write(escape(event.getLocation()));
+        csv.write(',');
+        csv.write(event.getBasePrice() + "," + event.getMaxPrice() + "," + event.getLimitOfEnrollment());
+        csv.write(',');
+        csv.write(format(event.getBeginEnrollmentDateTime()));
+        csv.write(',');
+        csv.write(format(event.getCloseEnrollmentDateTime()));
+        csv.write(',');
+        csv.write(format(event.getBeginEventDateTime()));
+        csv.write(',');
+        csv.write(format(event.getEndEventDateTime()));
+        csv.write(',');
+        csv.write(event.isOffline() + "," + event.isFree() + "," + format(event.getEventStatus()));
+        csv.write(',');
+        // 프록시의 id만 꺼내므로 계정을 조회하지 않는다.
+        csv.write(event.getAccount() == null ? "" : String.valueOf(event.getAccount().getId()));
+        csv.write('\n');
+    }
+
+    private String format(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        // 스프레드시트가 수식으로 실행하지 않도록 =, +, -, @로 시작하는 값은 앞에 '를 붙인다.
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = '\'' + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
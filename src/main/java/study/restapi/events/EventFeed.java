@@ -0,0 +1,278 @@
+package study.restapi.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import study.restapi.common.AppProperties;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 이벤트 생성, 수정, 상태 변경을 커밋 뒤에 구독자에게 SSE로 보낸다.
+// 최근 알림은 링 버퍼에 남겨서 Last-Event-ID로 이어 받을 수 있게 한다. 번호는 메모리에만 있어서 재시작하면
+// 1부터 다시 시작하므로 SSE id는 <epoch>-<번호>로 보내고, epoch가 다른 id로 이어 받으려 하면 RESET을 보낸다.
+// 구독자마다 큐 크기가 정해져 있고, 가득 차면 쓰는 쪽을 기다리게 하지 않고 그 구독자를 끊는다.
+// 전송은 크기가 정해진 스레드 풀에서 하고, 한 번의 전송이 send-timeout을 넘기면 바깥에서 연결을 끝낸다.
+@Slf4j
+@Component
+public class EventFeed implements InitializingBean, DisposableBean {
+    private final EventFeedEntry[] ring;
+    private final int subscriberBufferSize;
+    private final long sendTimeoutMillis;
+    private final long heartbeatMillis;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService watchdog;
+    private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX);
+    private long lastSequence;
+
+    public EventFeed(AppProperties appProperties) {
+        this.ring = new EventFeedEntry[appProperties.getEventFeedBufferSize()];
+        this.subscriberBufferSize = appProperties.getEventFeedSubscriberBufferSize();
+        this.sendTimeoutMillis = appProperties.getEventFeedSendTimeout().toMillis();
+        this.heartbeatMillis = appProperties.getEventFeedHeartbeatInterval().toMillis();
+        // 구독자마다 drain 작업은 최대 하나만 대기하므로 작업 큐도 구독자 수를 넘지 않는다.
+        this.senders = Executors.newFixedThreadPool(appProperties.getEventFeedSenderThreads(), threadFactory("event-feed-sender-"));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(threadFactory("event-feed-watchdog-"));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        watchdog.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long checkMillis = Math.max(sendTimeoutMillis / 2, 1);
+        watchdog.scheduleWithFixedDelay(this::abortStuckSends, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent changedEvent) {
+        Event event = changedEvent.getEvent();
+        EventFeedEntry.Type type = changedEvent.getType() == EventChangedEvent.Type.CREATED
+                ? EventFeedEntry.Type.CREATED : EventFeedEntry.Type.UPDATED;
+        synchronized (this) {
+            publish(new EventFeedEntry(++lastSequence, type, event.getId(), event.getVersion(), event.getEventStatus()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventStatusChanged(EventStatusChangedEvent changedEvent) {
+        synchronized (this) {
+            changedEvent.getIds().forEach(id -> publish(new EventFeedEntry(++lastSequence,
+                    EventFeedEntry.Type.STATUS_CHANGED, id, null, changedEvent.getEventStatus())));
+        }
+    }
+
+    // lastEventId 다음 알림부터 보낸다. 버퍼에서 밀려났거나, 재시작 전(epoch가 다른) id이거나, 알아볼 수 없는 id면
+    // RESET을 먼저 보낸다.
+    // abort는 전송이 막혀 있어도 다른 스레드에서 연결을 끝낼 수 있어야 한다. (AsyncContext.complete 등)
+    public void subscribe(SseEmitter emitter, String lastEventId, Runnable abort) {
+        Subscriber subscriber;
+        synchronized (this) {
+            List<EventFeedEntry> backlog = new ArrayList<>();
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long sequence = parseSequence(lastEventId.trim());
+                long oldest = Math.max(lastSequence - ring.length + 1, 1);
+                if (sequence < oldest - 1 || sequence > lastSequence) {
+                    backlog.add(new EventFeedEntry(lastSequence, EventFeedEntry.Type.RESET, null, null, null));
+                } else {
+                    for (long next = sequence + 1; next <= lastSequence; next++) {
+                        backlog.add(ring[(int) (next % ring.length)]);
+                    }
+                }
+            }
+            subscriber = new Subscriber(emitter, subscriberBufferSize + backlog.size(), abort);
+            subscriber.queue.addAll(backlog);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscriber.schedule();
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized String getLastEventId() {
+        return eventId(lastSequence);
+    }
+
+    String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // 이번 실행에서 보낸 id가 아니면 -1을 돌려줘서 RESET을 받게 한다.
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // 순서를 지키려고 락 안에서 넣지만 offer는 기다리지 않는다.
+    private void publish(EventFeedEntry entry) {
+        ring[(int) (entry.getSequence() % ring.length)] = entry;
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(entry)) {
+                log.info("Disconnecting slow event feed subscriber at sequence {}", entry.getSequence());
+                subscriber.disconnect();
+                continue;
+            }
+            subscriber.schedule();
+        }
+    }
+
+    // 프록시가 유휴 연결을 끊지 않도록 보낼 것이 없는 구독자에게 주석을 보낸다.
+    void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.schedule();
+        }
+    }
+
+    void abortStuckSends() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutMillis) {
+                log.info("Aborting event feed subscriber blocked in send for {} ms", now - since);
+                subscriber.abort();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        watchdog.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+        senders.shutdownNow();
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<EventFeedEntry> queue;
+        private final Runnable abort;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile boolean heartbeatDue;
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter, int capacity, Runnable abort) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.abort = abort;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // 구독자 하나에는 한 스레드만 보내도록 scheduled로 막는다.
+        private void drain() {
+            try {
+                EventFeedEntry entry;
+                while (!closed && (entry = queue.poll()) != null) {
+                    send(SseEmitter.event()
+                            .id(eventId(entry.getSequence()))
+                            .name(entry.getType().name().toLowerCase(Locale.ROOT))
+                            .data(entry, MediaType.APPLICATION_JSON));
+                }
+                if (!closed && heartbeatDue) {
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                disconnect();
+            } finally {
+                heartbeatDue = false;
+                scheduled.set(false);
+            }
+            if (closed) {
+                if (completed.compareAndSet(false, true)) {
+                    emitter.complete();
+                }
+            } else if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendingSince = System.currentTimeMillis();
+            try {
+                emitter.send(event);
+            } finally {
+                sendingSince = 0;
+            }
+        }
+
+        // 타임아웃이나 연결 끊김으로 이미 끝난 구독
+        private void close() {
+            closed = true;
+            completed.set(true);
+            subscribers.remove(this);
+        }
+
+        // 보내는 중이 아니면 전송 스레드가 complete한다. 쓰는 쪽에서 complete하면 전송이 끝날 때까지 기다리게 된다.
+        private void disconnect() {
+            closed = true;
+            subscribers.remove(this);
+            if (sendingSince != 0) {
+                watchdog.execute(this::abort);
+            } else {
+                schedule();
+            }
+        }
+
+        // 막힌 전송은 emitter를 잡고 있으므로 emitter를 거치지 않고 연결을 끝낸다.
+        // 이미 끝난 구독(completed)이면 요청 객체가 재사용됐을 수 있으므로 건드리지 않는다.
+        private void abort() {
+            closed = true;
+            subscribers.remove(this);
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                abort.run();
+            } catch (RuntimeException e) {
+                log.debug("Failed to abort event feed subscriber", e);
+            }
+        }
+    }
+}
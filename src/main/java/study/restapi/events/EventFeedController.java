@@ -0,0 +1,34 @@
+package study.restapi.events;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import study.restapi.common.AppProperties;
+
+import javax.servlet.http.HttpServletRequest;
+
+// 목록을 주기적으로 다시 읽는 대신 변경 알림을 받아 가는 SSE 피드
+@Controller
+@RequestMapping(value = "/api/events/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+@RequiredArgsConstructor
+public class EventFeedController {
+    private final EventFeed eventFeed;
+    private final AppProperties appProperties;
+
+    @GetMapping
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                HttpServletRequest request) {
+        SseEmitter emitter = new SseEmitter(appProperties.getEventFeedTimeout().toMillis());
+        // AsyncContext.complete는 다른 스레드에서 불러도 되므로 막힌 전송을 기다리지 않고 끝낼 수 있다.
+        eventFeed.subscribe(emitter, lastEventId, () -> {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().complete();
+            }
+        });
+        return emitter;
+    }
+}
@@ -0,0 +1,21 @@
+package study.restapi.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 변경 피드로 내보내는 알림 하나. 본문은 담지 않으므로 필요하면 id로 다시 조회한다.
+@Getter
+@RequiredArgsConstructor
+public class EventFeedEntry {
+    private final long sequence;
+    private final Type type;
+    private final Long id;
+    private final Long version;
+    private final EventStatus eventStatus;
+
+    public enum Type {
+        CREATED, UPDATED, STATUS_CHANGED,
+        // 요청한 위치부터 이어 줄 수 없으니 목록을 다시 읽어야 한다.
+        RESET
+    }
+}
@@ -0,0 +1,41 @@
+package study.restapi.events;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// fields= 파라미터로 고른 Event 필드. 링크를 만들려면 id가 필요하므로 항상 포함한다.
+public class EventFields {
+    static final List<String> ALLOWED = List.of("id", "name", "description", "location",
+            "basePrice", "maxPrice", "limitOfEnrollment",
+            "beginEnrollmentDateTime", "closeEnrollmentDateTime", "beginEventDateTime", "endEventDateTime",
+            "offline", "free", "eventStatus", "account");
+
+    private final Set<String> names;
+
+    private EventFields(Set<String> names) {
+        this.names = Collections.unmodifiableSet(names);
+    }
+
+    // 알 수 없는 필드가 있으면 IllegalArgumentException을 던진다.
+    public static EventFields parse(String value) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        for (String name : value.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!ALLOWED.contains(trimmed)) {
+                throw new IllegalArgumentException("Unknown field: " + trimmed);
+            }
+            names.add(trimmed);
+        }
+        return new EventFields(names);
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+}
@@ -0,0 +1,48 @@
+package study.restapi.events;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+import study.restapi.common.Links;
+
+import javax.persistence.Tuple;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 요청한 필드만 담은 이벤트 표현. 전체 표현과 같은 eventList 이름과 self 링크를 쓴다.
+@Relation(collectionRelation = "eventList")
+public class EventFieldsResource extends RepresentationModel<EventFieldsResource> {
+    private final Long id;
+    private final Long accountId;
+    private final Map<String, Object> fields = new LinkedHashMap<>();
+
+    public EventFieldsResource(Tuple tuple, EventFields eventFields) {
+        this.id = tuple.get(EventRepositoryCustom.ID_ALIAS, Long.class);
+        this.accountId = tuple.get(EventRepositoryCustom.ACCOUNT_ID_ALIAS, Long.class);
+        for (String name : eventFields.getNames()) {
+            if ("account".equals(name)) {
+                // AccountSerializer와 같은 모양으로 id만 내려준다.
+                fields.put(name, accountId == null ? null : Map.of("id", accountId));
+            } else {
+                fields.put(name, tuple.get(name));
+            }
+        }
+        add(Links.link(EventController.class, IanaLinkRelations.SELF_VALUE, id));
+    }
+
+    public boolean isOwnedBy(Long accountId) {
+        return this.accountId != null && this.accountId.equals(accountId);
+    }
+
+    @JsonIgnore
+    public Long getEventId() {
+        return id;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+}
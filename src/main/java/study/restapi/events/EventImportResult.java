@@ -0,0 +1,47 @@
+package study.restapi.events;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.validation.Errors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class EventImportResult extends RepresentationModel<EventImportResult> {
+    private long lines;
+    private long imported;
+    private long failed;
+    private final List<LineError> errors = new ArrayList<>();
+
+    // 에러는 최대 개수까지만 담고 나머지는 failed 개수로만 센다.
+    void fail(long line, Errors errors, String message, int maxErrors) {
+        failed++;
+        if (this.errors.size() < maxErrors) {
+            this.errors.add(new LineError(line, errors, message));
+        }
+    }
+
+    void read() {
+        lines++;
+    }
+
+    void imported(int count) {
+        imported += count;
+    }
+
+    @Getter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class LineError {
+        private final long line;
+        private final Errors errors;
+        private final String message;
+
+        private LineError(long line, Errors errors, String message) {
+            this.line = line;
+            this.errors = errors;
+            this.message = message;
+        }
+    }
+}
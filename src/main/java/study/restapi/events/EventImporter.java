@@ -0,0 +1,107 @@
+package study.restapi.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.Errors;
+import study.restapi.accounts.Account;
+import study.restapi.common.AppProperties;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// 한 줄에 EventDto 하나씩 담긴 NDJSON을 읽어서 일정 개수씩 나눠 저장한다.
+// 청크마다 트랜잭션을 끝내고 영속성 컨텍스트를 비우기 때문에 입력 크기와 관계없이 메모리 사용량이 일정하다.
+@Slf4j
+@Component
+public class EventImporter {
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EventValidator eventValidator;
+    private final EventMapper eventMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader reader;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public EventImporter(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                         EventValidator eventValidator, EventMapper eventMapper,
+                         ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                         AppProperties appProperties) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.eventValidator = eventValidator;
+        this.eventMapper = eventMapper;
+        this.eventPublisher = eventPublisher;
+        this.reader = objectMapper.readerFor(EventDto.class);
+        this.chunkSize = appProperties.getEventImportChunkSize();
+        this.maxErrors = appProperties.getEventImportMaxErrors();
+    }
+
+    public EventImportResult importEvents(InputStream in, Account account) throws IOException {
+        EventImportResult result = new EventImportResult();
+        List<Event> chunk = new ArrayList<>(chunkSize);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.read();
+
+            // 줄 단위로 파싱해서 잘못된 줄이 있어도 다음 줄부터 계속 읽는다.
+            EventDto eventDto;
+            try {
+                eventDto = reader.readValue(line);
+            } catch (JsonProcessingException e) {
+                result.fail(lineNumber, null, e.getOriginalMessage(), maxErrors);
+                continue;
+            }
+
+            Errors errors = eventValidator.validate(eventDto, "line " + lineNumber);
+            if (errors.hasErrors()) {
+                result.fail(lineNumber, errors, null, maxErrors);
+                continue;
+            }
+
+            Event event = eventMapper.toEvent(eventDto);
+            event.update();
+            event.setAccount(account);
+            chunk.add(event);
+            if (chunk.size() == chunkSize) {
+                save(chunk, result);
+            }
+        }
+        save(chunk, result);
+        log.info("Imported {} of {} events ({} failed)", result.getImported(), result.getLines(), result.getFailed());
+        return result;
+    }
+
+    private void save(List<Event> chunk, EventImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            chunk.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        chunk.forEach(event -> eventPublisher.publishEvent(new EventChangedEvent(event, EventChangedEvent.Type.CREATED)));
+        result.imported(chunk.size());
+        chunk.clear();
+        log.info("Imported {} events so far ({} lines read, {} failed)",
+                result.getImported(), result.getLines(), result.getFailed());
+    }
+}
@@ -0,0 +1,8 @@
+package study.restapi.events;
+
+// 이벤트를 메모리에 색인하는 구현체. EventIndexLoader가 시작할 때 전체를 채우고 변경될 때마다 갱신한다.
+public interface EventIndex {
+    void index(Event event);
+
+    void clear();
+}
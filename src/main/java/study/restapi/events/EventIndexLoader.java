@@ -0,0 +1,74 @@
+package study.restapi.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import study.restapi.common.AppProperties;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class EventIndexLoader {
+    private final EventRepository eventRepository;
+    private final AppProperties appProperties;
+    private final EntityManager entityManager;
+    private final List<EventIndex> indexes;
+    // 다시 만드는 동안 들어온 변경. 훑기가 끝난 뒤 들어온 순서대로 반영해서 스캔이 읽은 옛 값을 덮어쓴다.
+    // 다시 만들고 있지 않을 때는 null이다.
+    private List<Event> pending;
+
+    public EventIndexLoader(EventRepository eventRepository, AppProperties appProperties, EntityManager entityManager,
+                            List<EventIndex> indexes) {
+        this.eventRepository = eventRepository;
+        this.appProperties = appProperties;
+        this.entityManager = entityManager;
+        this.indexes = indexes;
+    }
+
+    // 전체 이벤트를 커서로 한 번 훑어서 모든 인덱스를 다시 만든다.
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            pending = new ArrayList<>();
+            indexes.forEach(EventIndex::clear);
+        }
+        long count = 0;
+        try (Stream<Event> events = eventRepository.streamAll(appProperties.getEventStreamFetchSize())) {
+            for (Event event : (Iterable<Event>) events::iterator) {
+                index(event);
+                entityManager.detach(event);
+                count++;
+            }
+        } finally {
+            int replayed;
+            synchronized (this) {
+                replayed = pending.size();
+                pending.forEach(this::index);
+                pending = null;
+            }
+            log.info("Indexed {} events and {} changes made during the scan in {} ms",
+                    count, replayed, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    @EventListener
+    public synchronized void onEventChanged(EventChangedEvent changedEvent) {
+        if (pending != null) {
+            pending.add(changedEvent.getEvent());
+            return;
+        }
+        index(changedEvent.getEvent());
+    }
+
+    private void index(Event event) {
+        indexes.forEach(index -> index.index(event));
+    }
+}
@@ -0,0 +1,27 @@
+package study.restapi.events;
+
+import org.springframework.stereotype.Component;
+
+// ModelMapper와 같은 결과를 내지만 리플렉션 없이 필드를 직접 복사한다.
+// EventDto에 필드를 추가하면 여기에도 추가해야 한다. (EventMapperTest가 확인한다)
+@Component
+public class EventMapper {
+    public Event toEvent(EventDto eventDto) {
+        Event event = new Event();
+        map(eventDto, event);
+        return event;
+    }
+
+    public void map(EventDto eventDto, Event event) {
+        event.setName(eventDto.getName());
+        event.setDescription(eventDto.getDescription());
+        event.setBasePrice(eventDto.getBasePrice());
+        event.setMaxPrice(eventDto.getMaxPrice());
+        event.setLimitOfEnrollment(eventDto.getLimitOfEnrollment());
+        event.setBeginEnrollmentDateTime(eventDto.getBeginEnrollmentDateTime());
+        event.setCloseEnrollmentDateTime(eventDto.getCloseEnrollmentDateTime());
+        event.setBeginEventDateTime(eventDto.getBeginEventDateTime());
+        event.setEndEventDateTime(eventDto.getEndEventDateTime());
+        event.setLocation(eventDto.getLocation());
+    }
+}
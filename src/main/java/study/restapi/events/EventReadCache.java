@@ -0,0 +1,79 @@
+package study.restapi.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import study.restapi.accounts.Account;
+import study.restapi.common.AppProperties;
+import study.restapi.common.ExpiringCache;
+
+import java.util.Optional;
+
+// 조회용 이벤트 캐시. 영속성 컨텍스트와 분리된 복사본을 담고, 계정은 id만 가진다.
+@Component
+public class EventReadCache {
+    private final EventRepository eventRepository;
+    private final ExpiringCache<Long, Event> cache;
+
+    public EventReadCache(EventRepository eventRepository, AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.cache = new ExpiringCache<>(appProperties.getEventCacheSize(), appProperties.getEventCacheTtl());
+        this.cache.registerMetrics(meterRegistry, "events");
+    }
+
+    public Optional<Event> findById(Long id) {
+        return Optional.ofNullable(cache.get(id, key -> eventRepository.findById(key)
+                .map(EventReadCache::snapshot)
+                .orElse(null)));
+    }
+
+    // 캐시에 있으면 캐시에서, 없으면 엔티티를 읽지 않고 버전만 조회한다.
+    public Optional<EventVersion> findVersion(Long id) {
+        Event cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(EventVersion.of(cached));
+        }
+        return eventRepository.findVersionById(id);
+    }
+
+    public void evict(Long id) {
+        cache.evict(id);
+    }
+
+    public ExpiringCache<Long, Event> getCache() {
+        return cache;
+    }
+
+    @EventListener
+    public void onEventChanged(EventChangedEvent changedEvent) {
+        evict(changedEvent.getEvent().getId());
+    }
+
+    @EventListener
+    public void onEventStatusChanged(EventStatusChangedEvent changedEvent) {
+        changedEvent.getIds().forEach(this::evict);
+    }
+
+    static Event snapshot(Event event) {
+        Account account = event.getAccount() == null ? null
+                : Account.builder().id(event.getAccount().getId()).build();
+        return Event.builder()
+                .id(event.getId())
+                .version(event.getVersion())
+                .name(event.getName())
+                .description(event.getDescription())
+                .location(event.getLocation())
+                .basePrice(event.getBasePrice())
+                .maxPrice(event.getMaxPrice())
+                .limitOfEnrollment(event.getLimitOfEnrollment())
+                .beginEnrollmentDateTime(event.getBeginEnrollmentDateTime())
+                .closeEnrollmentDateTime(event.getCloseEnrollmentDateTime())
+                .beginEventDateTime(event.getBeginEventDateTime())
+                .endEventDateTime(event.getEndEventDateTime())
+                .offline(event.isOffline())
+                .free(event.isFree())
+                .eventStatus(event.getEventStatus())
+                .account(account)
+                .build();
+    }
+}
@@ -1,6 +1,15 @@
 package study.restapi.events;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+import java.util.Optional;
+
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>,
+        EventRepositoryCustom {
+    @Query("select new study.restapi.events.EventVersion(e.id, e.version, a.id) " +
+            "from Event e left join e.account a where e.id = :id")
+    Optional<EventVersion> findVersionById(@Param("id") Long id);
 }
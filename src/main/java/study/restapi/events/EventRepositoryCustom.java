@@ -0,0 +1,36 @@
+package study.restapi.events;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.Tuple;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface EventRepositoryCustom {
+    String ID_ALIAS = "id";
+    String ACCOUNT_ID_ALIAS = "accountId";
+
+    // count 쿼리 없이 size + 1개를 조회해서 다음 페이지 여부만 판단한다.
+    Slice<Event> findSlice(Specification<Event> spec, Pageable pageable);
+
+    // 고른 필드만 select한다. id와 주최자 id(accountId)는 항상 포함한다.
+    List<Tuple> findFields(Specification<Event> spec, Collection<String> fields, Pageable pageable);
+
+    Optional<Tuple> findFieldsById(Long id, Collection<String> fields);
+
+    // 상태가 statuses 중 하나이고 timeField가 until 이하인 이벤트를 (시각, id) 순으로 limit개 조회한다.
+    // after가 있으면 그 (시각, id) 뒤부터 읽으므로 같은 시각의 이벤트가 limit보다 많아도 빠뜨리지 않는다.
+    List<EventDeadline> findDeadlines(String timeField, Collection<EventStatus> statuses,
+                                      EventDeadline after, LocalDateTime until, int limit);
+
+    // 전체 이벤트를 id 순으로 읽기 전용 스트림으로 조회한다. fetchSize는 이 쿼리에만 적용된다.
+    Stream<Event> streamAll(int fetchSize);
+
+    // 상태가 from이고 timeField가 now 이전인 이벤트만 to로 바꾸고 버전을 올린다.
+    int updateStatus(Collection<Long> ids, EventStatus from, EventStatus to, String timeField, LocalDateTime now);
+}
@@ -0,0 +1,138 @@
+package study.restapi.events;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<Event> findSlice(Specification<Event> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<Event> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public List<Tuple> findFields(Specification<Event> spec, Collection<String> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Event> root = query.from(Event.class);
+        query.multiselect(selections(root, fields));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public Optional<Tuple> findFieldsById(Long id, Collection<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Event> root = query.from(Event.class);
+        query.multiselect(selections(root, fields))
+                .where(cb.equal(root.get("id"), id));
+        return entityManager.createQuery(query).getResultStream().findFirst();
+    }
+
+    // 계정은 외래 키 컬럼만 읽으므로 account 테이블을 조인하지 않는다.
+    private List<Selection<?>> selections(Root<Event> root, Collection<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get("id").alias(ID_ALIAS));
+        selections.add(root.get("account").get("id").alias(ACCOUNT_ID_ALIAS));
+        for (String field : fields) {
+            if (!field.equals("id") && !field.equals("account")) {
+                selections.add(root.get(field).alias(field));
+            }
+        }
+        return selections;
+    }
+
+    @Override
+    public List<EventDeadline> findDeadlines(String timeField, Collection<EventStatus> statuses,
+                                             EventDeadline after, LocalDateTime until, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventDeadline> query = cb.createQuery(EventDeadline.class);
+        Root<Event> root = query.from(Event.class);
+        Path<LocalDateTime> time = root.get(timeField);
+        Path<Long> id = root.get("id");
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(root.get("eventStatus").in(statuses));
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(time, after.getDeadline()),
+                    cb.and(cb.equal(time, after.getDeadline()), cb.greaterThan(id, after.getId()))));
+        }
+        predicates.add(cb.lessThanOrEqualTo(time, until));
+        query.select(cb.construct(EventDeadline.class, id, time))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(time), cb.asc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Event> streamAll(int fetchSize) {
+        return entityManager.createQuery("select e from Event e order by e.id", Event.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> ids, EventStatus from, EventStatus to, String timeField, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Event> update = cb.createCriteriaUpdate(Event.class);
+        Root<Event> root = update.from(Event.class);
+        Path<Long> version = root.get("version");
+        update.set(root.<EventStatus>get("eventStatus"), to)
+                .set(version, cb.sum(version, 1L))
+                .where(root.get("id").in(ids),
+                        cb.equal(root.get("eventStatus"), from),
+                        cb.lessThanOrEqualTo(root.<LocalDateTime>get(timeField), now));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
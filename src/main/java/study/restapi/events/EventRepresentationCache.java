@@ -0,0 +1,115 @@
+package study.restapi.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import study.restapi.common.AppProperties;
+import study.restapi.common.ExpiringCache;
+import study.restapi.common.Links;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// 이벤트 하나의 HAL+JSON 응답을 직렬화된 바이트로 캐시한다.
+// 링크가 요청 주소와 소유자 여부에 따라 달라지므로 그 조합마다 따로 담는다.
+@Component
+public class EventRepresentationCache {
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+    private final ExpiringCache<Long, Representations> cache;
+    private final int maxVariants;
+    private volatile HttpMessageConverter<Object> halConverter;
+
+    public EventRepresentationCache(ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter,
+                                    AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.handlerAdapter = handlerAdapter;
+        this.maxVariants = appProperties.getEventCacheMaxVariants();
+        this.cache = new ExpiringCache<>(appProperties.getEventCacheSize(), appProperties.getEventCacheTtl());
+        this.cache.registerMetrics(meterRegistry, "event-representations");
+    }
+
+    // event는 EventReadCache가 돌려준 스냅샷이어야 한다. 스냅샷이 바뀌면 캐시된 바이트도 버린다.
+    public byte[] get(Event event, boolean owner, Supplier<EventResource> renderer) {
+        Representations representations = cache.getIfPresent(event.getId());
+        if (representations == null || representations.event != event) {
+            representations = new Representations(event);
+            cache.put(event.getId(), representations);
+        }
+        String variant = Links.base(EventController.class) + (owner ? "#owner" : "#other");
+        byte[] bytes = representations.bytes.get(variant);
+        if (bytes != null) {
+            return bytes;
+        }
+        bytes = write(renderer.get());
+        // 요청 주소는 Host, X-Forwarded-* 헤더로 클라이언트가 정하므로 이벤트마다 담는 조합 수를 제한한다.
+        if (representations.bytes.size() < maxVariants) {
+            representations.bytes.putIfAbsent(variant, bytes);
+        }
+        return bytes;
+    }
+
+    @EventListener
+    public void onEventChanged(EventChangedEvent changedEvent) {
+        cache.evict(changedEvent.getEvent().getId());
+    }
+
+    @EventListener
+    public void onEventStatusChanged(EventStatusChangedEvent changedEvent) {
+        changedEvent.getIds().forEach(cache::evict);
+    }
+
+    private byte[] write(EventResource eventResource) {
+        BufferedOutputMessage outputMessage = new BufferedOutputMessage();
+        try {
+            getHalConverter().write(eventResource, MediaTypes.HAL_JSON, outputMessage);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputMessage.body.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> getHalConverter() {
+        if (halConverter == null) {
+            halConverter = (HttpMessageConverter<Object>) handlerAdapter.getObject().getMessageConverters().stream()
+                    .filter(c -> c.canWrite(EventResource.class, MediaTypes.HAL_JSON))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No HAL message converter"));
+        }
+        return halConverter;
+    }
+
+    private static class Representations {
+        private final Event event;
+        private final Map<String, byte[]> bytes = new ConcurrentHashMap<>();
+
+        private Representations(Event event) {
+            this.event = event;
+        }
+    }
+
+    private static class BufferedOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
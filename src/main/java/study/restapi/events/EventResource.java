@@ -1,13 +1,13 @@
 package study.restapi.events;
 
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import study.restapi.common.Links;
 
 public class EventResource extends EntityModel<Event> {
     public EventResource(Event event, Link... links){
         super(event,links);
-        add(linkTo(EventController.class).slash(event.getId()).withSelfRel());
+        add(Links.link(EventController.class, IanaLinkRelations.SELF_VALUE, event.getId()));
     }
 }
@@ -0,0 +1,74 @@
+package study.restapi.events;
+
+import lombok.Data;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// GET /api/events의 필터 조건. 지정한 조건만 AND로 묶어서 Event의 인덱스를 탈 수 있는 조건으로 바꾼다.
+@Data
+public class EventSearchCondition {
+    private EventStatus eventStatus;
+    private Boolean free;
+    private Boolean offline;
+    private Integer basePriceFrom;
+    private Integer basePriceTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginEventFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginEventTo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginEnrollmentFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginEnrollmentTo;
+
+    public boolean isEmpty() {
+        return eventStatus == null && free == null && offline == null
+                && basePriceFrom == null && basePriceTo == null
+                && beginEventFrom == null && beginEventTo == null
+                && beginEnrollmentFrom == null && beginEnrollmentTo == null;
+    }
+
+    // 범위 조건은 from 이상, to 미만이다.
+    public Specification<Event> toSpecification() {
+        Specification<Event> spec = Specification.where(null);
+        if (eventStatus != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("eventStatus"), eventStatus));
+        }
+        if (free != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("free"), free));
+        }
+        if (offline != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("offline"), offline));
+        }
+        if (basePriceFrom != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("basePrice"), basePriceFrom));
+        }
+        if (basePriceTo != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get("basePrice"), basePriceTo));
+        }
+        if (beginEventFrom != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("beginEventDateTime"), beginEventFrom));
+        }
+        if (beginEventTo != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get("beginEventDateTime"), beginEventTo));
+        }
+        if (beginEnrollmentFrom != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("beginEnrollmentDateTime"), beginEnrollmentFrom));
+        }
+        if (beginEnrollmentTo != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get("beginEnrollmentDateTime"), beginEnrollmentTo));
+        }
+        return spec;
+    }
+
+    public static Specification<Event> idGreaterThan(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Event> idLessThan(Long id) {
+        return (root, query, cb) -> cb.lessThan(root.get("id"), id);
+    }
+}
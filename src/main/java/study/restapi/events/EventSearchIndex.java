@@ -0,0 +1,178 @@
+package study.restapi.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// 이름, 장소, 설명을 단어 단위로 나눈 역색인. 검색어의 각 단어를 접두어로 찾고 모든 단어가 들어있는 이벤트만
+// 필드 가중치(이름 3, 장소 2, 설명 1)를 더한 점수 순으로 돌려준다.
+@Component
+public class EventSearchIndex implements EventIndex {
+    private static final int NAME_WEIGHT = 3;
+    private static final int LOCATION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // 이보다 짧은 단어는 접두어로 넓히지 않고 같은 단어만 찾는다. 한 글자로 색인 전체를 훑지 않게 한다.
+    static final int MIN_PREFIX_LENGTH = 2;
+    private static final Comparator<Map.Entry<Long, Integer>> RANKING =
+            Map.Entry.<Long, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.<Long, Integer>comparingByKey().reversed());
+
+    // 단어 -> (이벤트 id -> 점수)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    // 이벤트 id -> 색인된 단어. 수정할 때 예전 단어를 지우는 데 쓴다.
+    private final Map<Long, Map<String, Integer>> documents = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized void index(Event event) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, event.getName(), NAME_WEIGHT);
+        addTerms(terms, event.getLocation(), LOCATION_WEIGHT);
+        addTerms(terms, event.getDescription(), DESCRIPTION_WEIGHT);
+
+        Map<String, Integer> previous = documents.put(event.getId(), terms);
+        if (previous != null) {
+            previous.keySet().forEach(term -> removePosting(term, event.getId()));
+        }
+        terms.forEach((term, score) ->
+                postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(event.getId(), score));
+    }
+
+    public synchronized void remove(Long id) {
+        Map<String, Integer> previous = documents.remove(id);
+        if (previous != null) {
+            previous.keySet().forEach(term -> removePosting(term, id));
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    // 점수가 높은 순, 같으면 최신(id가 큰) 이벤트 순으로 id를 돌려준다.
+    public List<Long> search(String query) {
+        return search(query, Integer.MAX_VALUE).getIds();
+    }
+
+    // 앞에서 limit개만 크기가 limit인 힙으로 골라서 정렬한다. 전체 일치 개수는 따로 돌려준다.
+    public Hits search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return Hits.EMPTY;
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Long, Integer> matches = match(token);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                Map<Long, Integer> merged = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                    Integer score = matches.get(entry.getKey());
+                    if (score != null) {
+                        merged.put(entry.getKey(), entry.getValue() + score);
+                    }
+                }
+                scores = merged;
+            }
+            if (scores.isEmpty()) {
+                return Hits.EMPTY;
+            }
+        }
+
+        // 힙의 맨 앞에 가장 낮은 순위를 두고 더 나은 항목이 오면 바꾼다.
+        PriorityQueue<Map.Entry<Long, Integer>> top = new PriorityQueue<>(RANKING.reversed());
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            if (top.size() < limit) {
+                top.add(entry);
+            } else if (RANKING.compare(entry, top.peek()) < 0) {
+                top.poll();
+                top.add(entry);
+            }
+        }
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        List<Long> ids = new ArrayList<>(ranked.size());
+        ranked.forEach(entry -> ids.add(entry.getKey()));
+        return new Hits(ids, scores.size());
+    }
+
+    // 접두어가 같은 단어들 중 이벤트마다 가장 높은 점수를 고른다. 완전히 같은 단어는 한 점을 더 준다.
+    private Map<Long, Integer> match(String prefix) {
+        Map<Long, Integer> matches = new HashMap<>();
+        if (prefix.length() < MIN_PREFIX_LENGTH) {
+            Map<Long, Integer> exact = postings.get(prefix);
+            if (exact != null) {
+                exact.forEach((id, score) -> matches.put(id, score + 1));
+            }
+            return matches;
+        }
+        NavigableMap<String, Map<Long, Integer>> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        range.forEach((term, ids) -> {
+            int bonus = term.equals(prefix) ? 1 : 0;
+            ids.forEach((id, score) -> matches.merge(id, score + bonus, Math::max));
+        });
+        return matches;
+    }
+
+    private void removePosting(String term, Long id) {
+        Map<Long, Integer> ids = postings.get(term);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term, ids);
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        tokenize(text).forEach(token -> terms.merge(token, weight, Integer::sum));
+    }
+
+    // 글자와 숫자가 아닌 문자를 기준으로 나누고 소문자로 바꾼다.
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        text.codePoints().forEach(c -> {
+            if (Character.isLetterOrDigit(c)) {
+                token.appendCodePoint(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        });
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Hits {
+        static final Hits EMPTY = new Hits(Collections.emptyList(), 0);
+
+        private final List<Long> ids;
+        private final int total;
+    }
+}
@@ -1,5 +1,5 @@
 package study.restapi.events;
 
 public enum EventStatus {
-    DREFT, PUBLISHED, BEGAN_ENROLLMENT
+    DREFT, PUBLISHED, BEGAN_ENROLLMENT, CLOSED_ENROLLMENT
 }
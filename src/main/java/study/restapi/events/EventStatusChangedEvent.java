@@ -0,0 +1,14 @@
+package study.restapi.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+// 벌크 UPDATE로 상태가 바뀐 이벤트들. 엔티티를 읽지 않았으므로 id만 담는다.
+@Getter
+@RequiredArgsConstructor
+public class EventStatusChangedEvent {
+    private final List<Long> ids;
+    private final EventStatus eventStatus;
+}
@@ -0,0 +1,220 @@
+package study.restapi.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.restapi.common.AppProperties;
+import study.restapi.common.TimingWheel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// 등록 시작/마감 시각이 되면 이벤트 상태를 바꾼다.
+// DB가 먼 미래를 담는 바깥 단계이고, horizon 안에 들어온 전환만 타이밍 휠에 올려서 메모리 사용량을 제한한다.
+// 재시작하거나 휠에서 놓친 전환은 reload에서 DB에 저장된 시각으로 다시 계산해서 처리한다.
+@Slf4j
+@Component
+public class EventStatusScheduler {
+    @Getter
+    @RequiredArgsConstructor
+    enum Transition {
+        BEGIN_ENROLLMENT(EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT,
+                Set.of(EventStatus.PUBLISHED), "beginEnrollmentDateTime", Event::getBeginEnrollmentDateTime),
+        // 등록 시작 전에 휠에 올려두면 시작 전환이 먼저 처리된 다음 마감된다.
+        CLOSE_ENROLLMENT(EventStatus.BEGAN_ENROLLMENT, EventStatus.CLOSED_ENROLLMENT,
+                Set.of(EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT), "closeEnrollmentDateTime", Event::getCloseEnrollmentDateTime);
+
+        private final EventStatus from;
+        private final EventStatus to;
+        private final Set<EventStatus> pending;
+        private final String timeField;
+        private final Function<Event, LocalDateTime> deadline;
+    }
+
+    @RequiredArgsConstructor
+    private static class Due {
+        private final Transition transition;
+        private final Long id;
+        private final long deadlineMillis;
+    }
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration horizon;
+    private final int maxPending;
+    private final int batchSize;
+    private final TimingWheel<Due> wheel;
+    private final long tickMillis;
+    private final Map<Transition, EventDeadline> loadedUntil = Collections.synchronizedMap(new EnumMap<>(Transition.class));
+    private final Timer lag;
+    private final Map<Transition, Counter> transitions = new EnumMap<>(Transition.class);
+    private final boolean scheduling;
+    private final Clock clock;
+
+    @Autowired
+    public EventStatusScheduler(EventRepository eventRepository, TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher, AppProperties appProperties,
+                                MeterRegistry meterRegistry) {
+        this(eventRepository, transactionTemplate, eventPublisher, appProperties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    EventStatusScheduler(EventRepository eventRepository, TransactionTemplate transactionTemplate,
+                         ApplicationEventPublisher eventPublisher, AppProperties appProperties,
+                         MeterRegistry meterRegistry, Clock clock) {
+        this.eventRepository = eventRepository;
+        this.clock = clock;
+        this.scheduling = appProperties.isEventStatusScheduling();
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.horizon = appProperties.getEventStatusHorizon();
+        this.maxPending = appProperties.getEventStatusMaxPending();
+        this.batchSize = appProperties.getEventStatusBatchSize();
+        Duration tick = appProperties.getEventStatusTickInterval();
+        this.tickMillis = tick.toMillis();
+        this.wheel = new TimingWheel<>(tick, (int) (horizon.toMillis() / tick.toMillis()), clock.millis());
+
+        this.lag = Timer.builder("events.status.lag")
+                .description("Delay between a transition's scheduled time and its update")
+                .register(meterRegistry);
+        Gauge.builder("events.status.pending", wheel, TimingWheel::size).register(meterRegistry);
+        for (Transition transition : Transition.values()) {
+            transitions.put(transition, Counter.builder("events.status.transitions")
+                    .tag("to", transition.getTo().name())
+                    .register(meterRegistry));
+        }
+    }
+
+    // 테스트에서는 꺼두고 tick, reload를 직접 부른다.
+    @Scheduled(fixedDelayString = "${my-app.event-status-tick-interval:1000}")
+    public void scheduledTick() {
+        if (scheduling) {
+            tick();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${my-app.event-status-reload-interval:60000}")
+    public void scheduledReload() {
+        if (scheduling) {
+            reload();
+        }
+    }
+
+    public synchronized void tick() {
+        long now = clock.millis();
+        Map<Transition, List<Due>> due = new EnumMap<>(Transition.class);
+        wheel.advance(now, d -> due.computeIfAbsent(d.transition, t -> new ArrayList<>()).add(d));
+        LocalDateTime until = LocalDateTime.now(clock);
+        due.forEach((transition, dues) -> {
+            for (int from = 0; from < dues.size(); from += batchSize) {
+                List<Due> chunk = dues.subList(from, Math.min(from + batchSize, dues.size()));
+                List<Long> ids = new ArrayList<>(chunk.size());
+                chunk.forEach(d -> ids.add(d.id));
+                apply(transition, ids, until);
+                long applied = clock.millis();
+                chunk.forEach(d -> lag.record(Math.max(applied - d.deadlineMillis, 0), TimeUnit.MILLISECONDS));
+            }
+        });
+    }
+
+    // 이미 지난 전환을 처리하고, horizon 안에 들어온 전환을 휠에 올린다.
+    public synchronized void reload() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime horizonEnd = now.plus(horizon);
+        for (Transition transition : Transition.values()) {
+            catchUp(transition, now);
+
+            EventDeadline after = loadedUntil.get(transition);
+            if (after == null || after.getDeadline().isBefore(now)) {
+                after = new EventDeadline(Long.MAX_VALUE, now);
+            }
+            int capacity = maxPending - wheel.size();
+            if (capacity <= 0) {
+                log.warn("Skipped loading {} transitions, {} are already pending", transition, wheel.size());
+                continue;
+            }
+            List<EventDeadline> deadlines = eventRepository.findDeadlines(transition.getTimeField(),
+                    transition.getPending(), after, horizonEnd, capacity);
+            deadlines.forEach(deadline -> schedule(transition, deadline.getId(), deadline.getDeadline()));
+            // 용량을 다 채웠으면 마지막으로 올린 (시각, id)까지만 읽은 것으로 본다.
+            loadedUntil.put(transition, deadlines.size() < capacity ? new EventDeadline(Long.MAX_VALUE, horizonEnd)
+                    : deadlines.get(deadlines.size() - 1));
+        }
+    }
+
+    // 이미 읽은 범위 안으로 시각이 들어온 이벤트는 다음 reload까지 기다리지 않고 바로 휠에 올린다.
+    @EventListener
+    public void onEventChanged(EventChangedEvent changedEvent) {
+        Event event = changedEvent.getEvent();
+        for (Transition transition : Transition.values()) {
+            LocalDateTime deadline = transition.getDeadline().apply(event);
+            EventDeadline until = loadedUntil.get(transition);
+            if (deadline != null && until != null && transition.getPending().contains(event.getEventStatus())
+                    && !until.isBefore(event.getId(), deadline)) {
+                schedule(transition, event.getId(), deadline);
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    private void catchUp(Transition transition, LocalDateTime now) {
+        while (true) {
+            List<EventDeadline> deadlines = eventRepository.findDeadlines(transition.getTimeField(),
+                    Set.of(transition.getFrom()), null, now, batchSize);
+            if (deadlines.isEmpty()) {
+                return;
+            }
+            List<Long> ids = new ArrayList<>(deadlines.size());
+            deadlines.forEach(deadline -> ids.add(deadline.getId()));
+            if (apply(transition, ids, now) == 0) {
+                return;
+            }
+            long applied = clock.millis();
+            deadlines.forEach(deadline -> lag.record(Math.max(applied - toMillis(deadline.getDeadline()), 0),
+                    TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private int apply(Transition transition, List<Long> ids, LocalDateTime now) {
+        Integer updated = transactionTemplate.execute(status -> eventRepository.updateStatus(ids,
+                transition.getFrom(), transition.getTo(), transition.getTimeField(), now));
+        int count = updated == null ? 0 : updated;
+        if (count > 0) {
+            transitions.get(transition).increment(count);
+            eventPublisher.publishEvent(new EventStatusChangedEvent(ids, transition.getTo()));
+        }
+        return count;
+    }
+
+    // 다음 tick 경계로 올려서 휠에서 꺼낼 때는 항상 마감 시각이 지나 있게 한다.
+    private void schedule(Transition transition, Long id, LocalDateTime deadline) {
+        long deadlineMillis = toMillis(deadline);
+        wheel.schedule(new Due(transition, id, deadlineMillis), deadlineMillis + tickMillis - 1);
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,145 @@
+package study.restapi.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// 이벤트 기간과 등록 기간을 날짜별 버킷에 나눠 담는 인덱스.
+// 구간이 걸친 날짜의 버킷만 훑은 다음 실제로 겹치는지 다시 확인한다.
+@Component
+public class EventTimeIndex implements EventIndex {
+    // 이보다 긴 구간은 버킷마다 넣지 않고 항상 확인하는 목록에 둔다.
+    static final int MAX_BUCKETS_PER_INTERVAL = 366;
+
+    public enum Range {
+        EVENT, ENROLLMENT
+    }
+
+    private final Map<Range, Buckets> ranges = new EnumMap<>(Range.class);
+
+    public EventTimeIndex() {
+        for (Range range : Range.values()) {
+            ranges.put(range, new Buckets());
+        }
+    }
+
+    @Override
+    public synchronized void index(Event event) {
+        ranges.get(Range.EVENT).put(event.getId(), event.getBeginEventDateTime(), event.getEndEventDateTime());
+        ranges.get(Range.ENROLLMENT).put(event.getId(), event.getBeginEnrollmentDateTime(), event.getCloseEnrollmentDateTime());
+    }
+
+    public synchronized void remove(Long id) {
+        ranges.values().forEach(buckets -> buckets.remove(id));
+    }
+
+    @Override
+    public synchronized void clear() {
+        ranges.values().forEach(Buckets::clear);
+    }
+
+    // [from, to)와 겹치는 이벤트 id를 시작 시각, id 순으로 돌려준다.
+    public List<Long> findOverlapping(Range range, LocalDateTime from, LocalDateTime to) {
+        return ranges.get(range).findOverlapping(from, to);
+    }
+
+    private static class Buckets {
+        // 날짜(epoch day) -> 그날에 걸친 이벤트 id
+        private final ConcurrentSkipListMap<Long, Set<Long>> buckets = new ConcurrentSkipListMap<>();
+        private final Map<Long, Interval> intervals = new ConcurrentHashMap<>();
+        private final Set<Long> longIntervals = ConcurrentHashMap.newKeySet();
+
+        void put(Long id, LocalDateTime begin, LocalDateTime end) {
+            remove(id);
+            if (begin == null || end == null || end.isBefore(begin)) {
+                return;
+            }
+            Interval interval = new Interval(id, begin, end);
+            intervals.put(id, interval);
+            if (interval.days() > MAX_BUCKETS_PER_INTERVAL) {
+                longIntervals.add(id);
+                return;
+            }
+            for (long day = interval.firstDay(); day <= interval.lastDay(); day++) {
+                buckets.computeIfAbsent(day, key -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        void remove(Long id) {
+            Interval previous = intervals.remove(id);
+            if (previous == null || longIntervals.remove(id)) {
+                return;
+            }
+            for (long day = previous.firstDay(); day <= previous.lastDay(); day++) {
+                Set<Long> ids = buckets.get(day);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        buckets.remove(day, ids);
+                    }
+                }
+            }
+        }
+
+        void clear() {
+            buckets.clear();
+            intervals.clear();
+            longIntervals.clear();
+        }
+
+        List<Long> findOverlapping(LocalDateTime from, LocalDateTime to) {
+            Set<Long> candidates = new HashSet<>(longIntervals);
+            long firstDay = from.toLocalDate().toEpochDay();
+            long lastDay = to.toLocalDate().toEpochDay();
+            buckets.subMap(firstDay, true, lastDay, true).values().forEach(candidates::addAll);
+
+            List<Interval> matches = new ArrayList<>();
+            for (Long id : candidates) {
+                Interval interval = intervals.get(id);
+                if (interval != null && interval.overlaps(from, to)) {
+                    matches.add(interval);
+                }
+            }
+            matches.sort(Comparator.comparing(Interval::getBegin).thenComparing(Interval::getId));
+            List<Long> ids = new ArrayList<>(matches.size());
+            matches.forEach(interval -> ids.add(interval.getId()));
+            return ids;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Interval {
+        private final Long id;
+        private final LocalDateTime begin;
+        private final LocalDateTime end;
+
+        long firstDay() {
+            return begin.toLocalDate().toEpochDay();
+        }
+
+        long lastDay() {
+            return end.toLocalDate().toEpochDay();
+        }
+
+        long days() {
+            return lastDay() - firstDay() + 1;
+        }
+
+        // 끝 시각이 창의 시작과 같으면 겹치지 않는다.
+        boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return begin.isBefore(to) && end.isAfter(from);
+        }
+    }
+}
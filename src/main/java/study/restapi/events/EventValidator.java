@@ -1,13 +1,30 @@
 package study.restapi.events;
 
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
 
+import javax.validation.Validator;
 import java.time.LocalDateTime;
 
 @Component
+@RequiredArgsConstructor
 public class EventValidator {
+    private final Validator validator;
+
+    // @Valid 없이 받은 입력(일괄 생성 등)을 제약 조건과 이벤트 규칙으로 함께 검사한다.
+    public Errors validate(EventDto eventDto, String objectName) {
+        Errors errors = new BeanPropertyBindingResult(eventDto, objectName);
+        new SpringValidatorAdapter(validator).validate(eventDto, errors);
+        if (!errors.hasErrors()) {
+            validate(eventDto, errors);
+        }
+        return errors;
+    }
+
     public void validate(EventDto eventDto, Errors errors) {
         if (eventDto.getBasePrice() > eventDto.getBasePrice() && eventDto.getMaxPrice() != 0) {
             //필드 에러
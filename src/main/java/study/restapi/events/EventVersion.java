@@ -0,0 +1,60 @@
+package study.restapi.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import study.restapi.accounts.Account;
+import study.restapi.common.BinaryMediaTypes;
+import study.restapi.common.ETags;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public class EventVersion {
+    private final Long id;
+    private final Long version;
+    private final Long accountId;
+
+    public static EventVersion of(Event event) {
+        return new EventVersion(event.getId(), event.getVersion(),
+                event.getAccount() == null ? null : event.getAccount().getId());
+    }
+
+    // 소유자 판단은 Event.isOwnedBy()와 같은 규칙을 쓴다.
+    public boolean isOwnedBy(Account account) {
+        return Event.isOwnedBy(accountId, account);
+    }
+
+    // 소유자에게는 update-event 링크가 추가되므로 표현이 달라 ETag도 구분한다.
+    public String eTag(boolean owner) {
+        return eTag(owner, MediaTypes.HAL_JSON);
+    }
+
+    // CBOR, Smile은 HAL+JSON과 바이트가 다른 표현이므로 강한 ETag를 따로 쓴다.
+    public String eTag(boolean owner, MediaType mediaType) {
+        return ETags.of(id + "." + version + (owner ? ".owner" : "") + suffix(mediaType));
+    }
+
+    // 같은 버전의 모든 표현의 ETag. If-Match는 어느 표현으로 받은 ETag든 받아준다.
+    public String[] eTags() {
+        List<String> eTags = new ArrayList<>();
+        for (MediaType mediaType : List.of(MediaTypes.HAL_JSON, BinaryMediaTypes.CBOR, BinaryMediaTypes.SMILE)) {
+            eTags.add(eTag(true, mediaType));
+            eTags.add(eTag(false, mediaType));
+        }
+        return eTags.toArray(String[]::new);
+    }
+
+    private static String suffix(MediaType mediaType) {
+        if (BinaryMediaTypes.CBOR.isCompatibleWith(mediaType)) {
+            return ".cbor";
+        }
+        if (BinaryMediaTypes.SMILE.isCompatibleWith(mediaType)) {
+            return ".smile";
+        }
+        return "";
+    }
+}
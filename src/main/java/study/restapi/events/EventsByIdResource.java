@@ -0,0 +1,21 @@
+package study.restapi.events;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.hateoas.CollectionModel;
+
+import java.util.List;
+
+// id 목록으로 조회한 결과. 찾지 못한 id는 missing에 요청한 순서대로 담는다.
+public class EventsByIdResource extends CollectionModel<EventResource> {
+    private final List<Long> missing;
+
+    public EventsByIdResource(List<EventResource> content, List<Long> missing) {
+        super(content);
+        this.missing = missing;
+    }
+
+    @JsonProperty("missing")
+    public List<Long> getMissing() {
+        return missing;
+    }
+}
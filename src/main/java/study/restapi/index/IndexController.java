@@ -2,17 +2,18 @@ package study.restapi.index;
 
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import study.restapi.common.Links;
 import study.restapi.events.EventController;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 @RestController
+@RequestMapping("/api")
 public class IndexController {
-    @GetMapping("/api")
+    @GetMapping
     public RepresentationModel index(){
         var index=new RepresentationModel<>();
-        index.add(linkTo(EventController.class).withRel("events"));
+        index.add(Links.link(EventController.class, "events"));
         return index;
     }
 }
@@ -0,0 +1,37 @@
+package study.restapi.tokens;
+
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import study.restapi.common.ExpiringCache;
+
+import java.time.Duration;
+
+// 한 번 검증한 토큰은 서명 검증 없이 재사용한다. 만료 여부는 DefaultTokenServices가 매번 확인한다.
+public class CachingJwtTokenStore extends JwtTokenStore {
+    private final ExpiringCache<String, OAuth2AccessToken> accessTokens;
+    private final ExpiringCache<String, OAuth2Authentication> authentications;
+
+    public CachingJwtTokenStore(JwtAccessTokenConverter jwtTokenEnhancer, int maximumSize, Duration ttl) {
+        super(jwtTokenEnhancer);
+        this.accessTokens = new ExpiringCache<>(maximumSize, ttl);
+        this.authentications = new ExpiringCache<>(maximumSize, ttl);
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        return accessTokens.get(tokenValue, super::readAccessToken);
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        OAuth2Authentication authentication = authentications.get(token, super::readAuthentication);
+        // 요청마다 details가 설정되므로 캐시된 객체를 공유하지 않는다.
+        return new OAuth2Authentication(authentication.getOAuth2Request(), authentication.getUserAuthentication());
+    }
+
+    public ExpiringCache<String, OAuth2AccessToken> getAccessTokenCache() {
+        return accessTokens;
+    }
+}
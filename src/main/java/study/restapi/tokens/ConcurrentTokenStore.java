@@ -0,0 +1,369 @@
+package study.restapi.tokens;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.DefaultAuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import study.restapi.common.TimingWheel;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// InMemoryTokenStore와 같은 동작을 하지만 만료된 토큰을 타이밍 휠로 정리하고 최대 개수를 제한한다.
+// 따로 샤드를 나누지 않고 ConcurrentHashMap의 버킷 단위 잠금에 맡긴다.
+public class ConcurrentTokenStore implements TokenStore, InitializingBean, DisposableBean {
+    private final ConcurrentHashMap<String, OAuth2AccessToken> accessTokenStore = newMap();
+    private final ConcurrentHashMap<String, OAuth2AccessToken> authenticationToAccessTokenStore = newMap();
+    private final ConcurrentHashMap<String, OAuth2Authentication> authenticationStore = newMap();
+    private final ConcurrentHashMap<String, String> accessTokenToRefreshTokenStore = newMap();
+    private final ConcurrentHashMap<String, OAuth2RefreshToken> refreshTokenStore = newMap();
+    private final ConcurrentHashMap<String, OAuth2Authentication> refreshTokenAuthenticationStore = newMap();
+    private final ConcurrentHashMap<String, String> refreshTokenToAccessTokenStore = newMap();
+    private final ConcurrentHashMap<String, Set<String>> userNameToAccessTokenStore = newMap();
+    private final ConcurrentHashMap<String, Set<String>> clientIdToAccessTokenStore = newMap();
+    private final ConcurrentHashMap<String, TimingWheel.Timeout<String>> accessTokenTimeouts = newMap();
+    private final ConcurrentHashMap<String, TimingWheel.Timeout<String>> refreshTokenTimeouts = newMap();
+
+    private final AuthenticationKeyGenerator authenticationKeyGenerator = new DefaultAuthenticationKeyGenerator();
+    private final TimingWheel<String> accessTokenExpiry;
+    private final TimingWheel<String> refreshTokenExpiry;
+    private final int maximumTokens;
+    private final ScheduledExecutorService sweeper;
+    private final long tickMillis;
+
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+
+    public ConcurrentTokenStore(Duration accessTokenValidity, Duration refreshTokenValidity,
+                                Duration tick, int maximumTokens) {
+        long now = System.currentTimeMillis();
+        this.accessTokenExpiry = new TimingWheel<>(tick, wheelSize(accessTokenValidity, tick), now);
+        this.refreshTokenExpiry = new TimingWheel<>(tick, wheelSize(refreshTokenValidity, tick), now);
+        this.maximumTokens = maximumTokens;
+        this.tickMillis = tick.toMillis();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "token-store-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        sweeper.scheduleWithFixedDelay(() -> advance(System.currentTimeMillis()),
+                tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static int wheelSize(Duration validity, Duration tick) {
+        return (int) Math.min(1 << 20, validity.toMillis() / tick.toMillis() + 1);
+    }
+
+    private static <K, V> ConcurrentHashMap<K, V> newMap() {
+        return new ConcurrentHashMap<>();
+    }
+
+    // 타이밍 휠은 한 스레드에서만 advance하므로 직접 부르는 정리도 sweeper 스레드에서 실행한다.
+    void sweep(long now) {
+        try {
+            sweeper.submit(() -> advance(now)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to sweep expired tokens", e.getCause());
+        }
+    }
+
+    private void advance(long now) {
+        accessTokenExpiry.advance(now, value -> {
+            accessTokenTimeouts.remove(value);
+            OAuth2AccessToken token = accessTokenStore.get(value);
+            if (token == null || token.getExpiration() == null) {
+                return;
+            }
+            if (token.getExpiration().getTime() <= now) {
+                removeAccessToken(value);
+                expiredCount.increment();
+            } else {
+                scheduleAccessToken(token);
+            }
+        });
+        refreshTokenExpiry.advance(now, value -> {
+            refreshTokenTimeouts.remove(value);
+            OAuth2RefreshToken token = refreshTokenStore.get(value);
+            if (!(token instanceof ExpiringOAuth2RefreshToken)) {
+                return;
+            }
+            if (isExpired((ExpiringOAuth2RefreshToken) token, now)) {
+                removeRefreshToken(value);
+                expiredCount.increment();
+            } else {
+                scheduleRefreshToken(token);
+            }
+        });
+    }
+
+    // 같은 토큰을 다시 저장해도(getAccessToken 등) 휠에는 한 번만 올린다.
+    private void scheduleAccessToken(OAuth2AccessToken token) {
+        if (token.getExpiration() != null) {
+            long expiration = token.getExpiration().getTime();
+            accessTokenTimeouts.computeIfAbsent(token.getValue(), v -> accessTokenExpiry.schedule(v, expiration));
+        }
+    }
+
+    private void scheduleRefreshToken(OAuth2RefreshToken refreshToken) {
+        if (refreshToken instanceof ExpiringOAuth2RefreshToken) {
+            Date expiration = ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration();
+            if (expiration != null) {
+                refreshTokenTimeouts.computeIfAbsent(refreshToken.getValue(),
+                        v -> refreshTokenExpiry.schedule(v, expiration.getTime()));
+            }
+        }
+    }
+
+    private boolean isExpired(ExpiringOAuth2RefreshToken token, long now) {
+        Date expiration = token.getExpiration();
+        return expiration != null && expiration.getTime() <= now;
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        return authenticationStore.get(token);
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        while (accessTokenStore.size() >= maximumTokens && accessTokenExpiry.size() > 0) {
+            accessTokenExpiry.evict(1, value -> {
+                accessTokenTimeouts.remove(value);
+                if (accessTokenStore.containsKey(value)) {
+                    removeAccessToken(value);
+                    evictedCount.increment();
+                }
+            });
+        }
+
+        String value = token.getValue();
+        accessTokenStore.put(value, token);
+        authenticationStore.put(value, authentication);
+        authenticationToAccessTokenStore.put(authenticationKeyGenerator.extractKey(authentication), token);
+        if (!authentication.isClientOnly()) {
+            addToIndex(userNameToAccessTokenStore, getApprovalKey(authentication), value);
+        }
+        addToIndex(clientIdToAccessTokenStore, authentication.getOAuth2Request().getClientId(), value);
+        scheduleAccessToken(token);
+        if (token.getRefreshToken() != null && token.getRefreshToken().getValue() != null) {
+            refreshTokenToAccessTokenStore.put(token.getRefreshToken().getValue(), value);
+            accessTokenToRefreshTokenStore.put(value, token.getRefreshToken().getValue());
+        }
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        return accessTokenStore.get(tokenValue);
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        removeAccessToken(token.getValue());
+    }
+
+    public void removeAccessToken(String tokenValue) {
+        TimingWheel.Timeout<String> timeout = accessTokenTimeouts.remove(tokenValue);
+        if (timeout != null) {
+            accessTokenExpiry.cancel(timeout);
+        }
+        OAuth2AccessToken removed = accessTokenStore.remove(tokenValue);
+        accessTokenToRefreshTokenStore.remove(tokenValue);
+        OAuth2Authentication authentication = authenticationStore.remove(tokenValue);
+        if (authentication != null) {
+            if (removed != null) {
+                authenticationToAccessTokenStore.remove(authenticationKeyGenerator.extractKey(authentication), removed);
+            }
+            removeFromIndex(userNameToAccessTokenStore, getApprovalKey(authentication), tokenValue);
+            removeFromIndex(clientIdToAccessTokenStore, authentication.getOAuth2Request().getClientId(), tokenValue);
+        }
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        while (refreshTokenStore.size() >= maximumTokens && refreshTokenExpiry.size() > 0) {
+            refreshTokenExpiry.evict(1, value -> {
+                refreshTokenTimeouts.remove(value);
+                if (refreshTokenStore.containsKey(value)) {
+                    removeRefreshToken(value);
+                    evictedCount.increment();
+                }
+            });
+        }
+
+        refreshTokenStore.put(refreshToken.getValue(), refreshToken);
+        refreshTokenAuthenticationStore.put(refreshToken.getValue(), authentication);
+        scheduleRefreshToken(refreshToken);
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        return refreshTokenStore.get(tokenValue);
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        return refreshTokenAuthenticationStore.get(token.getValue());
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken refreshToken) {
+        removeRefreshToken(refreshToken.getValue());
+    }
+
+    public void removeRefreshToken(String tokenValue) {
+        TimingWheel.Timeout<String> timeout = refreshTokenTimeouts.remove(tokenValue);
+        if (timeout != null) {
+            refreshTokenExpiry.cancel(timeout);
+        }
+        refreshTokenStore.remove(tokenValue);
+        refreshTokenAuthenticationStore.remove(tokenValue);
+        refreshTokenToAccessTokenStore.remove(tokenValue);
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        String accessToken = refreshTokenToAccessTokenStore.remove(refreshToken.getValue());
+        if (accessToken != null) {
+            removeAccessToken(accessToken);
+        }
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        String key = authenticationKeyGenerator.extractKey(authentication);
+        OAuth2AccessToken accessToken = authenticationToAccessTokenStore.get(key);
+        if (accessToken != null) {
+            OAuth2Authentication stored = readAuthentication(accessToken.getValue());
+            if (stored == null || !key.equals(authenticationKeyGenerator.extractKey(stored))) {
+                // 같은 사용자라도 인증 정보가 바뀌었을 수 있으므로 다시 저장한다.
+                storeAccessToken(accessToken, authentication);
+            }
+        }
+        return accessToken;
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return findTokens(userNameToAccessTokenStore, getApprovalKey(clientId, userName));
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return findTokens(clientIdToAccessTokenStore, clientId);
+    }
+
+    public int getAccessTokenCount() {
+        return accessTokenStore.size();
+    }
+
+    public int getRefreshTokenCount() {
+        return refreshTokenStore.size();
+    }
+
+    int getScheduledExpiryCount() {
+        return accessTokenExpiry.size() + refreshTokenExpiry.size();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    public void registerMetrics(MeterRegistry registry) {
+        Gauge.builder("tokens.size", this, ConcurrentTokenStore::getAccessTokenCount)
+                .tag("type", "access")
+                .register(registry);
+        Gauge.builder("tokens.size", this, ConcurrentTokenStore::getRefreshTokenCount)
+                .tag("type", "refresh")
+                .register(registry);
+        FunctionCounter.builder("tokens.expired", this, ConcurrentTokenStore::getExpiredCount)
+                .register(registry);
+        FunctionCounter.builder("tokens.evicted", this, ConcurrentTokenStore::getEvictedCount)
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        stopSweeper();
+    }
+
+    protected void stopSweeper() {
+        sweeper.shutdownNow();
+        try {
+            sweeper.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Collection<OAuth2AccessToken> findTokens(ConcurrentHashMap<String, Set<String>> index, String key) {
+        Set<String> values = index.get(key);
+        if (values == null) {
+            return Collections.emptySet();
+        }
+        List<OAuth2AccessToken> tokens = values.stream()
+                .map(accessTokenStore::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return Collections.unmodifiableList(tokens);
+    }
+
+    private void addToIndex(ConcurrentHashMap<String, Set<String>> index, String key, String value) {
+        index.compute(key, (k, values) -> {
+            Set<String> set = values != null ? values : ConcurrentHashMap.newKeySet();
+            set.add(value);
+            return set;
+        });
+    }
+
+    private void removeFromIndex(ConcurrentHashMap<String, Set<String>> index, String key, String value) {
+        index.computeIfPresent(key, (k, values) -> {
+            values.remove(value);
+            return values.isEmpty() ? null : values;
+        });
+    }
+
+    private String getApprovalKey(OAuth2Authentication authentication) {
+        String userName = authentication.getUserAuthentication() == null ? ""
+                : authentication.getUserAuthentication().getName();
+        return getApprovalKey(authentication.getOAuth2Request().getClientId(), userName);
+    }
+
+    private String getApprovalKey(String clientId, String userName) {
+        return clientId + (userName == null ? "" : ":" + userName);
+    }
+}
@@ -0,0 +1,287 @@
+package study.restapi.tokens;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.SerializationUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// 조회는 메모리 인덱스에서 처리하고, 변경 사항은 백그라운드에서 모아서 DB에 기록한다.
+// 재시작하면 DB에서 만료되지 않은 토큰을 읽어 메모리 인덱스를 다시 채운다.
+@Slf4j
+public class PersistentTokenStore extends ConcurrentTokenStore implements InitializingBean {
+    private static final String ACCESS_TABLE = "persistent_access_token";
+    private static final String REFRESH_TABLE = "persistent_refresh_token";
+    private static final Duration ENQUEUE_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final BlockingQueue<Write> writes;
+    private final Thread writer;
+    private final LongAdder failedWriteCount = new LongAdder();
+    private volatile boolean running = true;
+    // load() 중에 최대 개수를 넘어 밀려난 토큰은 쓰기 큐를 거치지 않고 적재가 끝난 뒤 한 번에 지운다.
+    private List<Write> loadEvictions;
+    private volatile Duration loadDuration = Duration.ZERO;
+
+    public PersistentTokenStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                Duration accessTokenValidity, Duration refreshTokenValidity, Duration tick,
+                                int maximumTokens, int batchSize, Duration flushInterval, int maxPendingWrites) {
+        super(accessTokenValidity, refreshTokenValidity, tick, maximumTokens);
+        this.writes = new LinkedBlockingQueue<>(maxPendingWrites);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.writer = new Thread(this::writeLoop, "token-store-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        createTables();
+        load();
+        writer.start();
+        super.afterPropertiesSet();
+    }
+
+    private void createTables() {
+        for (String table : List.of(ACCESS_TABLE, REFRESH_TABLE)) {
+            jdbcTemplate.execute("create table if not exists " + table + " ("
+                    + "token_id varchar(256) not null primary key, "
+                    + "token blob, "
+                    + "authentication blob, "
+                    + "expiration bigint)");
+        }
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        loadEvictions = new ArrayList<>();
+        jdbcTemplate.update("delete from " + ACCESS_TABLE + " where expiration <= ?", now);
+        jdbcTemplate.update("delete from " + REFRESH_TABLE + " where expiration <= ?", now);
+
+        jdbcTemplate.query("select token, authentication from " + REFRESH_TABLE, rs -> {
+            OAuth2RefreshToken token = (OAuth2RefreshToken) SerializationUtils.deserialize(rs.getBytes(1));
+            OAuth2Authentication authentication = (OAuth2Authentication) SerializationUtils.deserialize(rs.getBytes(2));
+            super.storeRefreshToken(token, authentication);
+        });
+        jdbcTemplate.query("select token, authentication from " + ACCESS_TABLE, rs -> {
+            OAuth2AccessToken token = (OAuth2AccessToken) SerializationUtils.deserialize(rs.getBytes(1));
+            OAuth2Authentication authentication = (OAuth2Authentication) SerializationUtils.deserialize(rs.getBytes(2));
+            super.storeAccessToken(token, authentication);
+        });
+        List<Write> evictions = loadEvictions;
+        loadEvictions = null;
+        if (!evictions.isEmpty()) {
+            flush(evictions);
+        }
+
+        loadDuration = Duration.ofNanos(System.nanoTime() - start);
+        log.info("Loaded {} access tokens and {} refresh tokens in {} ms ({} evicted over the maximum)",
+                getAccessTokenCount(), getRefreshTokenCount(), loadDuration.toMillis(), evictions.size());
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        super.storeAccessToken(token, authentication);
+        Date expiration = token.getExpiration();
+        enqueue(Write.store(ACCESS_TABLE, token.getValue(), SerializationUtils.serialize(token),
+                SerializationUtils.serialize(authentication), expiration));
+    }
+
+    @Override
+    public void removeAccessToken(String tokenValue) {
+        super.removeAccessToken(tokenValue);
+        enqueue(Write.remove(ACCESS_TABLE, tokenValue));
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        super.storeRefreshToken(refreshToken, authentication);
+        Date expiration = refreshToken instanceof ExpiringOAuth2RefreshToken
+                ? ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration() : null;
+        enqueue(Write.store(REFRESH_TABLE, refreshToken.getValue(), SerializationUtils.serialize(refreshToken),
+                SerializationUtils.serialize(authentication), expiration));
+    }
+
+    @Override
+    public void removeRefreshToken(String tokenValue) {
+        super.removeRefreshToken(tokenValue);
+        enqueue(Write.remove(REFRESH_TABLE, tokenValue));
+    }
+
+    public int getPendingWriteCount() {
+        return writes.size();
+    }
+
+    public long getFailedWriteCount() {
+        return failedWriteCount.sum();
+    }
+
+    public Duration getLoadDuration() {
+        return loadDuration;
+    }
+
+    @Override
+    public void registerMetrics(MeterRegistry registry) {
+        super.registerMetrics(registry);
+        Gauge.builder("tokens.pending.writes", this, PersistentTokenStore::getPendingWriteCount)
+                .register(registry);
+        FunctionCounter.builder("tokens.failed.writes", this, PersistentTokenStore::getFailedWriteCount)
+                .register(registry);
+        TimeGauge.builder("tokens.load.time", this, TimeUnit.MILLISECONDS, store -> store.loadDuration.toMillis())
+                .register(registry);
+    }
+
+    // 큐가 가득 차면 DB 기록이 따라올 때까지 발급, 폐기 요청을 잠시 기다리게 한다.
+    private void enqueue(Write write) {
+        if (loadEvictions != null) {
+            loadEvictions.add(write);
+            return;
+        }
+        try {
+            if (!writes.offer(write, ENQUEUE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Token write queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a token write", e);
+        }
+    }
+
+    // 실패한 묶음은 버리지 않고 간격을 늘려 가며 다시 기록한다. 종료할 때까지 실패하면 남은 개수를 남긴다.
+    private void writeLoop() {
+        List<Write> batch = new ArrayList<>(batchSize);
+        long backoff = flushInterval.toMillis();
+        while (running || !writes.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    Write first = writes.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    writes.drainTo(batch, batchSize - 1);
+                }
+                flush(batch);
+                batch.clear();
+                backoff = flushInterval.toMillis();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                break;
+            } catch (RuntimeException e) {
+                failedWriteCount.increment();
+                log.error("Failed to write {} token changes, retrying in {} ms", batch.size(), backoff, e);
+                if (!running) {
+                    break;
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF.toMillis());
+            }
+        }
+        int lost = batch.size() + writes.size();
+        if (lost > 0) {
+            log.error("Stopped with {} token changes not written", lost);
+        }
+    }
+
+    private void flush(List<Write> batch) {
+        // 같은 토큰에 대한 변경은 마지막 것만 반영한다.
+        Map<String, Write> latest = new LinkedHashMap<>();
+        for (Write write : batch) {
+            latest.put(write.table + ":" + write.tokenId, write);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String table : List.of(ACCESS_TABLE, REFRESH_TABLE)) {
+                List<Write> changes = latest.values().stream()
+                        .filter(w -> w.table.equals(table))
+                        .collect(Collectors.toList());
+                if (changes.isEmpty()) {
+                    continue;
+                }
+                jdbcTemplate.batchUpdate("delete from " + table + " where token_id = ?",
+                        changes.stream()
+                                .map(w -> new Object[]{w.tokenId})
+                                .collect(Collectors.toList()));
+                List<Object[]> inserts = changes.stream()
+                        .filter(w -> w.token != null)
+                        .map(w -> new Object[]{w.tokenId, w.token, w.authentication, w.expiration})
+                        .collect(Collectors.toList());
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate("insert into " + table
+                            + " (token_id, token, authentication, expiration) values (?, ?, ?, ?)", inserts);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        // sweeper가 더 넣지 않도록 먼저 멈추고 남은 변경을 기록한다.
+        stopSweeper();
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        super.destroy();
+    }
+
+    private static class Write {
+        private final String table;
+        private final String tokenId;
+        private final byte[] token;
+        private final byte[] authentication;
+        private final Long expiration;
+
+        private Write(String table, String tokenId, byte[] token, byte[] authentication, Long expiration) {
+            this.table = table;
+            this.tokenId = tokenId;
+            this.token = token;
+            this.authentication = authentication;
+            this.expiration = expiration;
+        }
+
+        private static Write store(String table, String tokenId, byte[] token, byte[] authentication, Date expiration) {
+            return new Write(table, tokenId, token, authentication, expiration == null ? null : expiration.getTime());
+        }
+
+        private static Write remove(String table, String tokenId) {
+            return new Write(table, tokenId, null, null, null);
+        }
+    }
+}
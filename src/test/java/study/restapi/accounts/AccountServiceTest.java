@@ -11,6 +11,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
+import study.restapi.common.ExpiringCache;
 
 import java.util.Set;
 
@@ -30,9 +31,13 @@ public class AccountServiceTest {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    ExpiringCache<String, AccountAdapter> accountCache;
+
     @Before
     public void setup(){
         accountRepository.deleteAll();
+        accountCache.clear();
     }
 
     @Test
@@ -53,6 +58,47 @@ public class AccountServiceTest {
         assertThat(passwordEncoder.matches(pass, userDetails.getPassword())).isTrue();
     }
 
+    @Test
+    public void findByUsernameCached() {
+        String email = "test@example.com";
+        String pass = "pass";
+        Account account = Account.builder()
+                .email(email)
+                .password(pass)
+                .roles(Set.of(AccountRole.USER))
+                .build();
+        accountService.saveAccount(account);
+
+        UserDetails first = accountService.loadUserByUsername(email);
+        ((AccountAdapter) first).eraseCredentials();
+        UserDetails second = accountService.loadUserByUsername(email);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(passwordEncoder.matches(pass, second.getPassword())).isTrue();
+        assertThat(accountCache.getHitCount()).isPositive();
+    }
+
+    @Test
+    public void staleLoadIsNotCachedAfterSaveAccount() {
+        String email = "test@example.com";
+        Account account = accountService.saveAccount(Account.builder()
+                .email(email)
+                .password("old")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+        AccountAdapter stale = new AccountAdapter(accountRepository.findByEmail(email).orElseThrow());
+
+        // 예전 계정을 읽은 로드가 끝나기 전에 비밀번호가 바뀐 경우
+        accountCache.get(email, key -> {
+            account.setPassword("new");
+            accountService.saveAccount(account);
+            return stale;
+        });
+
+        UserDetails userDetails = accountService.loadUserByUsername(email);
+        assertThat(passwordEncoder.matches("new", userDetails.getPassword())).isTrue();
+    }
+
     @Test
     public void findByUsernameFail() {
         String username = "test@example.com";
@@ -0,0 +1,21 @@
+package study.restapi.common;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AppPropertiesTest {
+
+    @Test
+    public void acceptKnownTokenMode() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setTokenMode("jwt");
+
+        assertThat(appProperties.getTokenMode()).isEqualTo("jwt");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectUnknownTokenMode() {
+        new AppProperties().setTokenMode("redis");
+    }
+}
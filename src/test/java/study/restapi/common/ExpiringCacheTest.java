@@ -0,0 +1,147 @@
+package study.restapi.common;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExpiringCacheTest {
+
+    @Test
+    public void expireAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(1), now::get);
+        cache.put("a", "A");
+
+        assertThat(cache.getIfPresent("a")).isEqualTo("A");
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.getIfPresent("a");
+        cache.put("c", "C");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getIfPresent("a")).isEqualTo("A");
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void loadOnlyOnMiss() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+        AtomicLong loads = new AtomicLong();
+
+        cache.get("a", k -> k + loads.incrementAndGet());
+        String value = cache.get("a", k -> k + loads.incrementAndGet());
+
+        assertThat(value).isEqualTo("a1");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void collapseConcurrentMisses() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+        AtomicLong loads = new AtomicLong();
+        CountDownLatch loading = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get("a", k -> {
+                loads.incrementAndGet();
+                try {
+                    loading.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "A";
+            })));
+        }
+        Thread.sleep(100);
+        loading.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("A");
+        }
+        executor.shutdown();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void discardLoadEvictedWhileLoading() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+
+        String value = cache.get("a", k -> {
+            cache.evict("a");
+            return "stale";
+        });
+
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.getIfPresent("a")).isNull();
+    }
+
+    @Test
+    public void discardLoadWhenOtherKeyEvictedWhileLoading() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+
+        cache.get("a", k -> {
+            cache.evictIf(v -> v.startsWith("stale"));
+            return "stale";
+        });
+        cache.get("b", k -> {
+            cache.clear();
+            return "stale";
+        });
+
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.get("a", k -> "fresh")).isEqualTo("fresh");
+        assertThat(cache.getIfPresent("a")).isEqualTo("fresh");
+    }
+
+    @Test
+    public void stayWithinMaximumSizeUnderConcurrentAccess() throws Exception {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(1000, Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t * 10_000;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 10_000; i++) {
+                    int key = offset + i;
+                    assertThat(cache.get(key, k -> k * 2)).isEqualTo(key * 2);
+                    cache.getIfPresent(key - 1);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(cache.size()).isLessThanOrEqualTo(1000).isPositive();
+        assertThat(cache.getLoadCount()).isEqualTo(80_000);
+        assertThat(cache.getEvictionCount()).isEqualTo(80_000 - cache.size());
+    }
+}
@@ -0,0 +1,66 @@
+package study.restapi.common;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import study.restapi.enrollments.EnrollmentController;
+import study.restapi.events.EventController;
+import study.restapi.index.IndexController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+public class LinksTest {
+    private MockHttpServletRequest request;
+
+    @Before
+    public void setup() {
+        request = new MockHttpServletRequest("GET", "/api/events");
+        request.setServerName("example.com");
+        request.setServerPort(8443);
+        request.setScheme("https");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @After
+    public void cleanup() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void sameHrefAsLinkTo() {
+        assertThat(Links.link(EventController.class, "query-events"))
+                .isEqualTo(linkTo(EventController.class).withRel("query-events"));
+        assertThat(Links.link(EventController.class, "self", 10L))
+                .isEqualTo(linkTo(EventController.class).slash(10L).withSelfRel());
+        assertThat(Links.link(IndexController.class, "index"))
+                .isEqualTo(linkTo(methodOn(IndexController.class).index()).withRel("index"));
+        assertThat(Links.link(EnrollmentController.class, "enrollments", 10L))
+                .isEqualTo(linkTo(EnrollmentController.class, 10L).withRel("enrollments"));
+    }
+
+    @Test
+    public void rootIsComputedOncePerRequest() {
+        assertThat(Links.base(EventController.class)).isEqualTo("https://example.com:8443/api/events");
+        assertThat(request.getAttribute(Links.class.getName() + ".root")).isEqualTo("https://example.com:8443");
+
+        request.setServerName("other.example.com");
+        assertThat(Links.base(EventController.class)).isEqualTo("https://example.com:8443/api/events");
+    }
+
+    @Test
+    public void templateIsReadFromMappingOnce() {
+        assertThat(Links.template(EnrollmentController.class).toString())
+                .isEqualTo("/api/events/{eventId}/enrollments");
+        assertThat(Links.template(EnrollmentController.class)).isSameAs(Links.template(EnrollmentController.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingPathVariable() {
+        Links.href(EnrollmentController.class);
+    }
+}
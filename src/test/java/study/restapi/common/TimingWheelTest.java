@@ -0,0 +1,57 @@
+package study.restapi.common;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTest {
+    @Test
+    public void expireEverythingScheduledWhileAdvancing() throws Exception {
+        TimingWheel<Integer> wheel = new TimingWheel<>(Duration.ofMillis(1), 1024, 0);
+        int threads = 8;
+        int itemsPerThread = 20_000;
+        int ticks = 500;
+        AtomicInteger expired = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < itemsPerThread; i++) {
+                    // 이미 지난 마감 시각이므로 항상 currentTick 바로 다음 슬롯에 들어간다.
+                    wheel.schedule(i, 0);
+                }
+                return null;
+            }));
+        }
+        Future<?> advancer = executor.submit(() -> {
+            start.await();
+            for (int now = 1; now <= ticks; now++) {
+                wheel.advance(now, item -> expired.incrementAndGet());
+            }
+            return null;
+        });
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        advancer.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        // 지나간 슬롯에 들어간 항목이 있으면 한 바퀴를 돌 때까지 남는다.
+        wheel.advance(wheel.getCurrentTick() + 1, item -> expired.incrementAndGet());
+        assertThat(expired.get()).isEqualTo(threads * itemsPerThread);
+        assertThat(wheel.size()).isZero();
+    }
+}
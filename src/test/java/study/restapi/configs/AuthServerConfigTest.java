@@ -1,21 +1,29 @@
 package study.restapi.configs;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import study.restapi.accounts.Account;
+import study.restapi.accounts.AccountAdapter;
 import study.restapi.accounts.AccountRepository;
 import study.restapi.accounts.AccountRole;
 import study.restapi.accounts.AccountService;
 import study.restapi.common.AppProperties;
 import study.restapi.common.BaseControllerTest;
+import study.restapi.common.ExpiringCache;
 import study.restapi.common.TestDescription;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.post;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -30,9 +38,16 @@ public class AuthServerConfigTest extends BaseControllerTest {
     @Autowired
     AccountRepository accountRepository;
 
+    @Autowired
+    ExpiringCache<String, AccountAdapter> accountCache;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
     @Before
     public void setup(){
         accountRepository.deleteAll();
+        accountCache.clear();
     }
 
     @Test
@@ -54,4 +69,70 @@ public class AuthServerConfigTest extends BaseControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("access_token").exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    @TestDescription("Accept 헤더 없이 토큰을 발급 받아도 JSON으로 응답받는 테스트")
+    public void getAuthTokenWithoutAccept() throws Exception {
+        Account account = Account.builder()
+                .email(appProperties.getAdminUsername())
+                .password(appProperties.getAdminPassword())
+                .roles(Set.of(AccountRole.ADMIN, AccountRole.USER))
+                .build();
+        accountService.saveAccount(account);
+
+        mvc.perform(post("/oauth/token")
+                .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                .param("username", appProperties.getAdminUsername())
+                .param("password", appProperties.getAdminPassword())
+                .param("grant_type", "password"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("access_token").exists());
+    }
+
+    @Test
+    @TestDescription("계정 캐시가 있을 때와 없을 때 토큰 발급 처리량과 쿼리 수를 비교하는 테스트")
+    public void getAuthTokenThroughputWithAndWithoutAccountCache() throws Exception {
+        Account account = Account.builder()
+                .email(appProperties.getAdminUsername())
+                .password(appProperties.getAdminPassword())
+                .roles(Set.of(AccountRole.ADMIN, AccountRole.USER))
+                .build();
+        accountService.saveAccount(account);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        int requests = 50;
+
+        // 매번 캐시를 비워서 캐시가 없는 경우처럼 계정과 권한을 다시 조회하게 한다.
+        statistics.clear();
+        long uncachedNanos = issueTokens(requests, true);
+        long uncachedStatements = statistics.getPrepareStatementCount();
+
+        issueTokens(1, false);
+        statistics.clear();
+        long cachedNanos = issueTokens(requests, false);
+        long cachedStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("Token endpoint: %.1f req/s without account cache (%d statements), "
+                        + "%.1f req/s with account cache (%d statements)%n",
+                requests * 1e9 / uncachedNanos, uncachedStatements, requests * 1e9 / cachedNanos, cachedStatements);
+        assertThat(uncachedStatements).isGreaterThanOrEqualTo(requests);
+        assertThat(cachedStatements).isLessThan(uncachedStatements);
+        assertThat(accountCache.getHitCount()).isGreaterThanOrEqualTo(requests);
+    }
+
+    private long issueTokens(int requests, boolean clearCache) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            if (clearCache) {
+                accountCache.clear();
+            }
+            mvc.perform(post("/oauth/token")
+                    .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                    .param("username", appProperties.getAdminUsername())
+                    .param("password", appProperties.getAdminPassword())
+                    .param("grant_type", "password"))
+                    .andExpect(status().isOk());
+        }
+        return System.nanoTime() - start;
+    }
+}
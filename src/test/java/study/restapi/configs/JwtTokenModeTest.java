@@ -0,0 +1,133 @@
+package study.restapi.configs;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.jwt.crypto.sign.RsaVerifier;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import org.springframework.security.oauth2.provider.token.store.KeyStoreKeyFactory;
+import org.springframework.test.context.TestPropertySource;
+import study.restapi.accounts.Account;
+import study.restapi.accounts.AccountRepository;
+import study.restapi.accounts.AccountRole;
+import study.restapi.accounts.AccountService;
+import study.restapi.common.AppProperties;
+import study.restapi.common.BaseControllerTest;
+import study.restapi.common.TestDescription;
+import study.restapi.events.EventDto;
+import study.restapi.events.EventRepository;
+
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.post;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "my-app.token-mode=jwt",
+        "my-app.token-key-store=classpath:jwt-test.jks",
+        "my-app.token-key-store-password=test-secret"
+})
+public class JwtTokenModeTest extends BaseControllerTest {
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AppProperties appProperties;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Before
+    public void setup() {
+        eventRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @TestDescription("JWT 토큰을 발급받아 인증이 필요한 요청을 보내는 테스트")
+    public void useJwtAccessToken() throws Exception {
+        Account account = Account.builder()
+                .email(appProperties.getUserUsername())
+                .password(appProperties.getUserPassword())
+                .roles(Set.of(AccountRole.USER))
+                .build();
+        accountService.saveAccount(account);
+
+        String responseBody = mvc.perform(post("/oauth/token")
+                .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                .param("username", appProperties.getUserUsername())
+                .param("password", appProperties.getUserPassword())
+                .param("grant_type", "password"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String accessToken = new Jackson2JsonParser().parseMap(responseBody).get("access_token").toString();
+        assertThat(accessToken.split("\\.")).hasSize(3);
+
+        // 다른 노드나 재시작한 노드가 같은 키 저장소에서 읽은 공개키로 검증할 수 있다.
+        KeyPair sharedKeyPair = new KeyStoreKeyFactory(new ClassPathResource("jwt-test.jks"), "test-secret".toCharArray())
+                .getKeyPair("jwt");
+        JwtHelper.decodeAndVerify(accessToken, new RsaVerifier((RSAPublicKey) sharedKeyPair.getPublic()));
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(put("/api/events/123123")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{}"))
+                    .andExpect(status().isNotFound());
+        }
+
+        // 토큰의 계정이 주최자로 저장되고 주최자만 받는 링크와 수정이 동작한다.
+        EventDto eventDto = EventDto.builder()
+                .name("Spring")
+                .description("Rest API")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 1, 27, 16, 3))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .beginEventDateTime(LocalDateTime.of(2020, 1, 27, 12, 1))
+                .endEventDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+        String created = mvc.perform(post("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("_links.update-event").exists())
+                .andReturn().getResponse().getContentAsString();
+        Object id = new Jackson2JsonParser().parseMap(created).get("id");
+
+        eventDto.setName("Updated");
+        mvc.perform(put("/api/events/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Updated"));
+
+        mvc.perform(put("/api/events/123123")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken + "x")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,200 @@
+package study.restapi.enrollments;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import study.restapi.accounts.Account;
+import study.restapi.accounts.AccountRepository;
+import study.restapi.accounts.AccountRole;
+import study.restapi.accounts.AccountService;
+import study.restapi.common.AppProperties;
+import study.restapi.common.BaseControllerTest;
+import study.restapi.common.TestDescription;
+import study.restapi.events.Event;
+import study.restapi.events.EventRepository;
+import study.restapi.events.EventStatus;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
+import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.post;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.relaxedResponseFields;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class EnrollmentControllerTest extends BaseControllerTest {
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AppProperties appProperties;
+
+    @Before
+    @After
+    public void cleanup() {
+        enrollmentRepository.deleteAll();
+        eventRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @TestDescription("등록이 열린 이벤트에 참가 등록하기")
+    public void enroll() throws Exception {
+        Event event = createEvent(EventStatus.BEGAN_ENROLLMENT, 10);
+
+        mvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                .accept(MediaTypes.HAL_JSON))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("id").exists())
+                .andExpect(jsonPath("eventId").value(event.getId()))
+                .andExpect(jsonPath("status").value(EnrollmentStatus.ACCEPTED.name()))
+                .andExpect(jsonPath("waitlistPosition").doesNotExist())
+                .andDo(document("create-enrollment",
+                        links(
+                                linkWithRel("enrollments").description("link to enrollment summary of the event"),
+                                linkWithRel("event").description("link to the event"),
+                                linkWithRel("profile").description("link to profile")
+                        ),
+                        relaxedResponseFields(
+                                fieldWithPath("id").description("identifier of new enrollment"),
+                                fieldWithPath("eventId").description("identifier of the event"),
+                                fieldWithPath("accountId").description("identifier of the enrolled account"),
+                                fieldWithPath("status").description("ACCEPTED or WAITING"),
+                                fieldWithPath("waitlistPosition").optional().description("position in waitlist when WAITING")
+                        )
+                ));
+    }
+
+    @Test
+    @TestDescription("자리가 없으면 대기 순번을 받는 테스트")
+    public void enrollWaiting() throws Exception {
+        Event event = createEvent(EventStatus.BEGAN_ENROLLMENT, 0);
+
+        mvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("status").value(EnrollmentStatus.WAITING.name()))
+                .andExpect(jsonPath("waitlistPosition").value(1));
+    }
+
+    @Test
+    @TestDescription("같은 계정으로 두 번 등록하면 409 응답받기")
+    public void enrollTwice() throws Exception {
+        Event event = createEvent(EventStatus.BEGAN_ENROLLMENT, 10);
+        String token = getBearerToken();
+
+        mvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isCreated());
+        mvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @TestDescription("등록 기간이 아닌 이벤트에 등록하면 400 응답받기")
+    public void enrollNotOpen() throws Exception {
+        Event event = createEvent(EventStatus.PUBLISHED, 10);
+
+        mvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("enrollmentNotOpen"))
+                .andExpect(jsonPath("_links.index").exists());
+    }
+
+    @Test
+    @TestDescription("없는 이벤트에 등록하면 404 응답받기")
+    public void enroll404() throws Exception {
+        mvc.perform(post("/api/events/{eventId}/enrollments", 123123)
+                .header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @TestDescription("이벤트의 등록 현황 조회하기")
+    public void getSummary() throws Exception {
+        Event event = createEvent(EventStatus.BEGAN_ENROLLMENT, 1);
+        mvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+                .andExpect(status().isCreated());
+
+        mvc.perform(get("/api/events/{eventId}/enrollments", event.getId()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("limitOfEnrollment").value(1))
+                .andExpect(jsonPath("accepted").value(1))
+                .andExpect(jsonPath("waiting").value(0))
+                .andDo(document("get-enrollments",
+                        links(
+                                linkWithRel("self").description("link to self"),
+                                linkWithRel("event").description("link to the event"),
+                                linkWithRel("profile").description("link to profile")
+                        ),
+                        relaxedResponseFields(
+                                fieldWithPath("limitOfEnrollment").description("limit of enrollment of the event"),
+                                fieldWithPath("accepted").description("number of accepted enrollments"),
+                                fieldWithPath("waiting").description("number of enrollments in waitlist")
+                        )
+                ));
+    }
+
+    @Test
+    @TestDescription("없는 이벤트의 등록 현황을 조회하면 404 응답받기")
+    public void getSummary404() throws Exception {
+        mvc.perform(get("/api/events/{eventId}/enrollments", 123123))
+                .andExpect(status().isNotFound());
+    }
+
+    private Event createEvent(EventStatus eventStatus, int limitOfEnrollment) {
+        boolean open = eventStatus == EventStatus.BEGAN_ENROLLMENT;
+        return eventRepository.save(Event.builder()
+                .name("event")
+                .description("popular event")
+                .limitOfEnrollment(limitOfEnrollment)
+                .beginEnrollmentDateTime(LocalDateTime.now().plusDays(open ? -1 : 1))
+                .closeEnrollmentDateTime(LocalDateTime.now().plusDays(2))
+                .beginEventDateTime(LocalDateTime.now().plusDays(3))
+                .endEventDateTime(LocalDateTime.now().plusDays(4))
+                .eventStatus(eventStatus)
+                .build());
+    }
+
+    private String getBearerToken() throws Exception {
+        accountService.saveAccount(Account.builder()
+                .email(appProperties.getUserUsername())
+                .password(appProperties.getUserPassword())
+                .roles(Set.of(AccountRole.USER))
+                .build());
+
+        String responseBody = mvc.perform(post("/oauth/token")
+                .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                .param("username", appProperties.getUserUsername())
+                .param("password", appProperties.getUserPassword())
+                .param("grant_type", "password"))
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + new Jackson2JsonParser().parseMap(responseBody).get("access_token").toString();
+    }
+}
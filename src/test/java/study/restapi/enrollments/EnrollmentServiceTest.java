@@ -0,0 +1,182 @@
+package study.restapi.enrollments;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import study.restapi.accounts.Account;
+import study.restapi.accounts.AccountRepository;
+import study.restapi.accounts.AccountRole;
+import study.restapi.events.Event;
+import study.restapi.events.EventChangedEvent;
+import study.restapi.events.EventRepository;
+import study.restapi.events.EventStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EnrollmentServiceTest {
+    @Autowired
+    EnrollmentService enrollmentService;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Before
+    @After
+    public void cleanup() {
+        enrollmentRepository.deleteAll();
+        eventRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    public void enrollTwice() {
+        Event event = createEvent(1);
+        Account account = createAccount(0);
+
+        Optional<Enrollment> first = enrollmentService.enroll(event, account);
+        Optional<Enrollment> second = enrollmentService.enroll(event, account);
+
+        assertThat(first).isPresent();
+        assertThat(first.get().getStatus()).isEqualTo(EnrollmentStatus.ACCEPTED);
+        assertThat(second).isEmpty();
+        assertThat(enrollmentRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void enrollConcurrentlyNeverExceedsLimit() throws Exception {
+        int limit = 100;
+        int participants = 500;
+        Event event = createEvent(limit);
+        List<Account> accounts = IntStream.range(0, participants)
+                .mapToObj(this::createAccount)
+                .collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Enrollment> enrollments = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Account account : accounts) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                enrollmentService.enroll(event, account).ifPresent(enrollments::add);
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Enrollment> accepted = enrollments.stream()
+                .filter(e -> e.getStatus() == EnrollmentStatus.ACCEPTED)
+                .collect(Collectors.toList());
+        List<Integer> positions = enrollments.stream()
+                .filter(e -> e.getStatus() == EnrollmentStatus.WAITING)
+                .map(Enrollment::getWaitlistPosition)
+                .sorted()
+                .collect(Collectors.toList());
+        assertThat(accepted).hasSize(limit);
+        assertThat(positions).containsExactlyElementsOf(
+                IntStream.rangeClosed(1, participants - limit).boxed().collect(Collectors.toList()));
+        assertThat(enrollmentRepository.countByEventIdAndStatus(event.getId(), EnrollmentStatus.ACCEPTED))
+                .isEqualTo(limit);
+        assertThat(enrollmentRepository.countByEventIdAndStatus(event.getId(), EnrollmentStatus.WAITING))
+                .isEqualTo(participants - limit);
+
+        EnrollmentService.Summary summary = enrollmentService.getSummary(event);
+        assertThat(summary.getAccepted()).isEqualTo(limit);
+        assertThat(summary.getWaiting()).isEqualTo(participants - limit);
+    }
+
+    @Test
+    public void promoteWaitingInOrderWhenLimitGrows() {
+        Event event = createEvent(1);
+        List<Account> accounts = IntStream.range(0, 4)
+                .mapToObj(this::createAccount)
+                .collect(Collectors.toList());
+        Enrollment first = enrollmentService.enroll(event, accounts.get(0)).orElseThrow();
+        Enrollment second = enrollmentService.enroll(event, accounts.get(1)).orElseThrow();
+        Enrollment third = enrollmentService.enroll(event, accounts.get(2)).orElseThrow();
+        assertThat(first.getStatus()).isEqualTo(EnrollmentStatus.ACCEPTED);
+        assertThat(second.getWaitlistPosition()).isEqualTo(1);
+        assertThat(third.getWaitlistPosition()).isEqualTo(2);
+
+        event.setLimitOfEnrollment(2);
+        enrollmentService.onEventChanged(new EventChangedEvent(eventRepository.save(event), EventChangedEvent.Type.UPDATED));
+
+        assertThat(enrollmentRepository.findById(second.getId()).orElseThrow().getStatus())
+                .isEqualTo(EnrollmentStatus.ACCEPTED);
+        assertThat(enrollmentRepository.findById(third.getId()).orElseThrow().getStatus())
+                .isEqualTo(EnrollmentStatus.WAITING);
+
+        // 앞에 기다리는 사람이 있으므로 새 요청은 자리를 가져가지 못한다.
+        Enrollment fourth = enrollmentService.enroll(event, accounts.get(3)).orElseThrow();
+        assertThat(fourth.getStatus()).isEqualTo(EnrollmentStatus.WAITING);
+        assertThat(fourth.getWaitlistPosition()).isEqualTo(3);
+
+        EnrollmentService.Summary summary = enrollmentService.getSummary(event);
+        assertThat(summary.getAccepted()).isEqualTo(2);
+        assertThat(summary.getWaiting()).isEqualTo(2);
+
+        event.setLimitOfEnrollment(3);
+        enrollmentService.onEventChanged(new EventChangedEvent(eventRepository.save(event), EventChangedEvent.Type.UPDATED));
+
+        assertThat(enrollmentRepository.findById(third.getId()).orElseThrow().getStatus())
+                .isEqualTo(EnrollmentStatus.ACCEPTED);
+        assertThat(enrollmentRepository.findById(fourth.getId()).orElseThrow().getStatus())
+                .isEqualTo(EnrollmentStatus.WAITING);
+        assertThat(enrollmentService.getSummary(event).getWaiting()).isEqualTo(1);
+    }
+
+    private Event createEvent(int limitOfEnrollment) {
+        Event event = Event.builder()
+                .name("event")
+                .description("popular event")
+                .limitOfEnrollment(limitOfEnrollment)
+                .beginEnrollmentDateTime(LocalDateTime.now().minusDays(1))
+                .closeEnrollmentDateTime(LocalDateTime.now().plusDays(1))
+                .beginEventDateTime(LocalDateTime.now().plusDays(2))
+                .endEventDateTime(LocalDateTime.now().plusDays(3))
+                .eventStatus(EventStatus.BEGAN_ENROLLMENT)
+                .build();
+        return eventRepository.save(event);
+    }
+
+    private Account createAccount(int index) {
+        return accountRepository.save(Account.builder()
+                .email("user" + index + "@example.com")
+                .password("password")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+    }
+}
@@ -1,12 +1,23 @@
 package study.restapi.events;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import study.restapi.accounts.Account;
 import study.restapi.accounts.AccountRepository;
@@ -14,12 +25,27 @@ import study.restapi.accounts.AccountRole;
 import study.restapi.accounts.AccountService;
 import study.restapi.common.AppProperties;
 import study.restapi.common.BaseControllerTest;
+import study.restapi.common.BinaryMediaTypes;
 import study.restapi.common.TestDescription;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.restdocs.headers.HeaderDocumentation.*;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
@@ -45,6 +71,21 @@ public class EventControllerTest extends BaseControllerTest {
     @Autowired
     AppProperties appProperties;
 
+    @Autowired
+    EventCountCache eventCountCache;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EventIndexLoader eventIndexLoader;
+
+    @Autowired
+    EventFeed eventFeed;
+
     @Before
     public void setup() {
         eventRepository.deleteAll();
@@ -233,6 +274,140 @@ public class EventControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("_links.index").exists());
     }
 
+    @Test
+    @TestDescription("여러 이벤트를 한 번에 생성하면 잘못된 항목만 실패하는 테스트")
+    public void createEvents_Batch() throws Exception {
+        EventDto valid = EventDto.builder()
+                .name("Spring")
+                .description("Rest API")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 1, 27, 16, 3))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .beginEventDateTime(LocalDateTime.of(2020, 1, 27, 12, 1))
+                .endEventDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+        EventDto wrong = EventDto.builder()
+                .name("Spring")
+                .description("Rest API")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 1, 28, 16, 3))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 1, 27, 12, 1))
+                .beginEventDateTime(LocalDateTime.of(2020, 1, 26, 12, 1))
+                .endEventDateTime(LocalDateTime.of(2020, 1, 24, 12, 1))
+                .basePrice(10000)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+        EventDto empty = EventDto.builder().build();
+
+        mvc.perform(post("/api/events/batch")
+                .header(HttpHeaders.AUTHORIZATION, getBearToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(valid, wrong, empty, valid, null))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.results[0].status").value(201))
+                .andExpect(jsonPath("_embedded.results[0].id").exists())
+                .andExpect(jsonPath("_embedded.results[0]._links.self").exists())
+                .andExpect(jsonPath("_embedded.results[1].status").value(400))
+                .andExpect(jsonPath("_embedded.results[1].errors").exists())
+                .andExpect(jsonPath("_embedded.results[2].status").value(400))
+                .andExpect(jsonPath("_embedded.results[3].index").value(3))
+                .andExpect(jsonPath("_embedded.results[3].status").value(201))
+                .andExpect(jsonPath("_embedded.results[4].status").value(400))
+                .andExpect(jsonPath("_embedded.results[4].errors[0].code").value("nullEvent"))
+                .andExpect(jsonPath("_links.query-events").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("create-events-batch"));
+
+        assertThat(eventRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @TestDescription("NDJSON으로 이벤트를 가져오면 잘못된 줄만 건너뛰는 테스트")
+    public void importEvents() throws Exception {
+        EventDto valid = EventDto.builder()
+                .name("Spring")
+                .description("Rest API")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 1, 27, 16, 3))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .beginEventDateTime(LocalDateTime.of(2020, 1, 27, 12, 1))
+                .endEventDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+        String line = objectMapper.writeValueAsString(valid);
+        String body = String.join("\n",
+                line,
+                line,
+                "{\"name\": ",
+                objectMapper.writeValueAsString(EventDto.builder().build()),
+                "",
+                line);
+
+        mvc.perform(post("/api/events/import")
+                .header(HttpHeaders.AUTHORIZATION, getBearToken())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("lines").value(5))
+                .andExpect(jsonPath("imported").value(3))
+                .andExpect(jsonPath("failed").value(2))
+                .andExpect(jsonPath("errors[0].line").value(3))
+                .andExpect(jsonPath("errors[0].message").exists())
+                .andExpect(jsonPath("errors[1].line").value(4))
+                .andExpect(jsonPath("errors[1].errors").exists())
+                .andExpect(jsonPath("_links.query-events").exists())
+                .andDo(document("import-events"));
+
+        assertThat(eventRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @TestDescription("전체 이벤트를 NDJSON과 CSV로 내려받기")
+    public void exportEvents() throws Exception {
+        Account account = createAccount();
+        IntStream.range(0, 3).forEach(i -> generateEvent(i, account));
+
+        String ndjson = mvc.perform(get("/api/events/export"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readTree(lines[0]).get("name").asText()).isEqualTo("event 0");
+        assertThat(objectMapper.readTree(lines[0]).get("account").get("id").asLong()).isEqualTo(account.getId());
+
+        String csv = mvc.perform(get("/api/events/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] rows = csv.split("\n");
+        assertThat(rows).hasSize(4);
+        assertThat(rows[0]).startsWith("id,name,description");
+        assertThat(rows[1]).contains(",event 0,test event 0,강남역,100,200,100,");
+
+        Event formula = buildEvent(3);
+        formula.setName("=HYPERLINK(\"http://example.com\")");
+        formula.setDescription("@SUM(1,2)");
+        formula.setLocation("-1");
+        eventRepository.save(formula);
+        csv = mvc.perform(get("/api/events/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(csv.split("\n")[4])
+                .contains(",\"'=HYPERLINK(\"\"http://example.com\"\")\",\"'@SUM(1,2)\",'-1,");
+
+        mvc.perform(get("/api/events/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @TestDescription("30개의 이벤트를 10개씩 두번째 페이지 조회하기")
     public void queryEvents() throws Exception {
@@ -272,6 +447,381 @@ public class EventControllerTest extends BaseControllerTest {
                 .andDo(document("query-events"));
     }
 
+    @Test
+    @TestDescription("커서 기반으로 30개의 이벤트를 10개씩 조회하기")
+    public void queryEventsAfterCursor() throws Exception {
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        mvc.perform(get("/api/events")
+                .param("after", "")
+                .param("size", "10"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page").doesNotExist())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+                .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.next").exists())
+                .andExpect(jsonPath("_links.profile").exists());
+    }
+
+    @Test
+    @TestDescription("count 쿼리 없이 30개의 이벤트를 10개씩 두번째 페이지 조회하기")
+    public void queryEventSlice() throws Exception {
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        mvc.perform(get("/api/events")
+                .param("slice", "true")
+                .param("page", "1")
+                .param("size", "10")
+                .param("sort", "id,DESC"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.size").value(10))
+                .andExpect(jsonPath("page.number").value(1))
+                .andExpect(jsonPath("page.totalElements").doesNotExist())
+                .andExpect(jsonPath("page.totalPages").doesNotExist())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+                .andExpect(jsonPath("_links.prev").exists())
+                .andExpect(jsonPath("_links.next").exists())
+                .andExpect(jsonPath("_links.profile").exists());
+    }
+
+    @Test
+    @TestDescription("상태와 가격, 날짜 조건으로 이벤트 검색하기")
+    public void queryEventsWithCondition() throws Exception {
+        IntStream.range(0, 30).forEach(i -> {
+            Event event = buildEvent(i);
+            event.setEventStatus(i % 2 == 0 ? EventStatus.PUBLISHED : EventStatus.DREFT);
+            event.setBasePrice(i * 10);
+            event.setBeginEventDateTime(LocalDateTime.of(2020, 2, 1, 0, 0).plusDays(i));
+            eventRepository.save(event);
+        });
+
+        mvc.perform(get("/api/events")
+                .param("eventStatus", "PUBLISHED")
+                .param("basePriceFrom", "100")
+                .param("beginEventTo", "2020-02-21T00:00:00")
+                .param("size", "3")
+                .param("sort", "id"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(5))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("event 10"))
+                .andExpect(jsonPath("_embedded.eventList[2].name").value("event 14"))
+                .andExpect(jsonPath("_links.next").exists());
+
+        mvc.perform(get("/api/events")
+                .param("eventStatus", "PUBLISHED")
+                .param("basePriceFrom", "100")
+                .param("beginEventTo", "2020-02-21T00:00:00")
+                .param("size", "3")
+                .param("sort", "id")
+                .param("slice", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(3))
+                .andExpect(jsonPath("page.approximateTotalElements").doesNotExist())
+                .andExpect(jsonPath("_links.next").exists());
+
+        mvc.perform(get("/api/events")
+                .param("eventStatus", "PUBLISHED")
+                .param("basePriceFrom", "100")
+                .param("beginEventTo", "2020-02-21T00:00:00")
+                .param("size", "3")
+                .param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(3))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("event 10"));
+    }
+
+    // 커서와 OFFSET 방식의 성능 비교 벤치마크는 테스트 환경(H2 메모리 DB)에서 의미가 없어 넣지 않았다.
+    // 여기서는 next 링크를 끝까지 따라가서 빠지거나 중복된 이벤트가 없는지만 확인한다.
+    @Test
+    @TestDescription("커서의 next 링크를 끝까지 따라가면 모든 이벤트를 한 번씩 조회하는 테스트")
+    public void queryEventsAfterCursor_FollowNextToEnd() throws Exception {
+        List<Long> ids = IntStream.range(0, 25)
+                .mapToObj(i -> generateEvent(i).getId())
+                .collect(Collectors.toList());
+
+        assertThat(followNext("/api/events?after=&size=10")).containsExactlyElementsOf(ids);
+
+        List<Long> descending = new ArrayList<>(ids);
+        Collections.reverse(descending);
+        assertThat(followNext("/api/events?after=&size=10&sort=id,DESC")).containsExactlyElementsOf(descending);
+    }
+
+    private List<Long> followNext(String uri) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String next = uri;
+        int pages = 0;
+        while (next != null) {
+            assertThat(++pages).isLessThanOrEqualTo(10);
+            String body = mvc.perform(get(next))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode root = objectMapper.readTree(body);
+            root.path("_embedded").path("eventList").forEach(event -> ids.add(event.get("id").asLong()));
+            JsonNode nextLink = root.path("_links").path("next").path("href");
+            next = nextLink.isMissingNode() ? null : nextLink.asText();
+        }
+        return ids;
+    }
+
+    @Test
+    @TestDescription("상태 조건으로 검색하면 인덱스를 사용하는 테스트")
+    public void queryEventsWithCondition_UsesIndex() {
+        String plan = jdbcTemplate.queryForObject("explain select * from event "
+                + "where event_status = 'PUBLISHED' and begin_event_date_time >= timestamp '2020-02-01 00:00:00'",
+                String.class);
+
+        assertThat(plan.toUpperCase()).contains("IDX_EVENT_STATUS_BEGIN_EVENT");
+    }
+
+    @Test
+    @TestDescription("검색어로 이벤트를 찾으면 이름이 일치하는 이벤트가 먼저 나오는 테스트")
+    public void queryEventsWithKeyword() throws Exception {
+        Event byName = buildEvent(1);
+        byName.setName("Spring study");
+        Event byDescription = buildEvent(2);
+        byDescription.setDescription("spring boot");
+        eventRepository.save(byDescription);
+        eventRepository.save(byName);
+        IntStream.range(3, 10).forEach(this::generateEvent);
+        eventIndexLoader.rebuild();
+
+        mvc.perform(get("/api/events").param("q", "spr"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(2))
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(byName.getId()))
+                .andExpect(jsonPath("_embedded.eventList[1].id").value(byDescription.getId()));
+
+        EventDto eventDto = EventDto.builder()
+                .name("Spring REST API")
+                .description("Rest API")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 1, 27, 16, 3))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .beginEventDateTime(LocalDateTime.of(2020, 1, 27, 12, 1))
+                .endEventDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .location("강남역")
+                .build();
+        mvc.perform(post("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, getBearToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isCreated());
+
+        mvc.perform(get("/api/events").param("q", "rest 강남"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(1))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("Spring REST API"));
+    }
+
+    @Test
+    @TestDescription("검색어로 찾은 결과의 뒤 페이지를 조회하는 테스트")
+    public void queryEventsWithKeyword_Page() throws Exception {
+        IntStream.range(0, 5).forEach(i -> {
+            Event event = buildEvent(i);
+            event.setName("Spring study " + i);
+            eventRepository.save(event);
+        });
+        eventIndexLoader.rebuild();
+
+        mvc.perform(get("/api/events").param("q", "spring").param("page", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(5))
+                .andExpect(jsonPath("_embedded.eventList.length()").value(2));
+    }
+
+    @Test
+    @TestDescription("검색어를 필터나 정렬과 같이 쓰면 400을 받는 테스트")
+    public void queryEventsWithKeyword_Bad_Request_WithFilterOrSort() throws Exception {
+        mvc.perform(get("/api/events").param("q", "spring").param("eventStatus", "PUBLISHED"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("searchWithFilter"))
+                .andExpect(jsonPath("_links.index").exists());
+
+        mvc.perform(get("/api/events").param("q", "spring").param("sort", "name,DESC"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("searchWithFilter"));
+    }
+
+    @Test
+    @TestDescription("기간이 겹치는 이벤트를 시작 시각 순으로 조회하기")
+    public void queryOverlappingEvents() throws Exception {
+        IntStream.range(0, 10).forEach(i -> {
+            Event event = buildEvent(i);
+            event.setBeginEventDateTime(LocalDateTime.of(2020, 3, 1, 0, 0).plusDays(i));
+            event.setEndEventDateTime(LocalDateTime.of(2020, 3, 1, 0, 0).plusDays(i + 2));
+            eventRepository.save(event);
+        });
+        eventIndexLoader.rebuild();
+
+        mvc.perform(get("/api/events/overlapping")
+                .param("from", "2020-03-05T12:00:00")
+                .param("to", "2020-03-06T12:00:00")
+                .param("size", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(3))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("event 3"))
+                .andExpect(jsonPath("_embedded.eventList[1].name").value("event 4"))
+                .andExpect(jsonPath("_links.next").exists());
+
+        mvc.perform(get("/api/events/overlapping")
+                .param("from", "2020-03-06T12:00:00")
+                .param("to", "2020-03-05T12:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @TestDescription("필요한 필드만 골라서 이벤트 목록과 이벤트 하나를 조회하기")
+    public void queryEventsWithFields() throws Exception {
+        Account account = createAccount();
+        IntStream.range(0, 30).forEach(i -> generateEvent(i, account));
+        Event event = eventRepository.findAll().get(0);
+
+        mvc.perform(get("/api/events")
+                .param("fields", "name,beginEventDateTime,account")
+                .param("eventStatus", "DREFT")
+                .param("size", "10")
+                .param("sort", "name,DESC"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(30))
+                .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+                .andExpect(jsonPath("_embedded.eventList[0].id").exists())
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("event 9"))
+                .andExpect(jsonPath("_embedded.eventList[0].beginEventDateTime").exists())
+                .andExpect(jsonPath("_embedded.eventList[0].account.id").value(account.getId()))
+                .andExpect(jsonPath("_embedded.eventList[0].description").doesNotExist())
+                .andExpect(jsonPath("_embedded.eventList[0].basePrice").doesNotExist())
+                .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+                .andExpect(jsonPath("_embedded.eventList[0]._links.update-event").doesNotExist())
+                .andExpect(jsonPath("_links.next").exists());
+
+        String token = getBearToken(false);
+        String fieldsBody = mvc.perform(get("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .param("fields", "name")
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0]._links.update-event").exists())
+                .andReturn().getResponse().getContentAsString();
+        String fullBody = mvc.perform(get("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        // 같은 페이지라도 고른 필드만 내려주므로 응답이 전체 표현보다 작다.
+        assertThat(fieldsBody.length()).isLessThan(fullBody.length());
+
+        mvc.perform(get("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(event.getId()))
+                .andExpect(jsonPath("name").value(event.getName()))
+                .andExpect(jsonPath("location").doesNotExist())
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.update-event").exists());
+
+        mvc.perform(get("/api/events/{id}", event.getId()).param("fields", "name,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("unknownField"))
+                .andExpect(jsonPath("errors[0].defaultMessage").value(containsString("password")));
+    }
+
+    @Test
+    @TestDescription("필드 선택을 검색어, 커서, slice와 같이 쓰거나 없는 필드를 고르면 400과 오류 내용을 받는 테스트")
+    public void queryEventsWithFields_Bad_Request() throws Exception {
+        mvc.perform(get("/api/events").param("fields", "name").param("q", "spring"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("fieldsWithUnsupportedParameter"))
+                .andExpect(jsonPath("_links.index").exists());
+        mvc.perform(get("/api/events").param("fields", "name").param("after", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("fieldsWithUnsupportedParameter"));
+        mvc.perform(get("/api/events").param("fields", "name").param("slice", "true"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("fieldsWithUnsupportedParameter"));
+        mvc.perform(get("/api/events").param("fields", "name,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("unknownField"));
+    }
+
+    @Test
+    @TestDescription("id 목록으로 여러 이벤트를 요청한 순서대로 조회하기")
+    public void getEventsByIds() throws Exception {
+        Account account = createAccount();
+        Event first = generateEvent(1, account);
+        Event second = generateEvent(2, account);
+        Event third = generateEvent(3);
+        long missingId = third.getId() + 1000;
+
+        mvc.perform(get("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, getBearToken(false))
+                .param("ids", third.getId() + "," + missingId + "," + first.getId() + "," + third.getId() + "," + second.getId()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(3))
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(third.getId()))
+                .andExpect(jsonPath("_embedded.eventList[0]._links.update-event").doesNotExist())
+                .andExpect(jsonPath("_embedded.eventList[1].id").value(first.getId()))
+                .andExpect(jsonPath("_embedded.eventList[1]._links.update-event").exists())
+                .andExpect(jsonPath("_embedded.eventList[2].id").value(second.getId()))
+                .andExpect(jsonPath("missing[0]").value(missingId))
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("get-events-by-ids"));
+    }
+
+    @Test
+    @TestDescription("나눠서 조회하는 크기의 경계를 넘는 id 목록도 순서대로 조회하기")
+    public void getEventsByIds_AcrossChunks() throws Exception {
+        List<Event> events = IntStream.range(0, 5)
+                .mapToObj(this::generateEvent)
+                .collect(Collectors.toList());
+        Collections.reverse(events);
+        String ids = events.stream().map(e -> e.getId().toString()).collect(Collectors.joining(","));
+
+        ResultActions result = mvc.perform(get("/api/events").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(5))
+                .andExpect(jsonPath("missing").isEmpty());
+        for (int i = 0; i < events.size(); i++) {
+            result.andExpect(jsonPath("_embedded.eventList[" + i + "].id").value(events.get(i).getId()));
+        }
+    }
+
+    @Test
+    @TestDescription("최대 개수까지는 조회되고 넘으면 400과 오류 내용을 받는 테스트")
+    public void getEventsByIds_MaxSize() throws Exception {
+        int maxSize = appProperties.getEventMultiGetMaxSize();
+        String atLimit = LongStream.rangeClosed(1, maxSize).mapToObj(Long::toString)
+                .collect(Collectors.joining(","));
+
+        mvc.perform(get("/api/events").param("ids", atLimit))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("missing.length()").value(maxSize));
+
+        mvc.perform(get("/api/events").param("ids", atLimit + "," + (maxSize + 1)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("tooManyIds"))
+                .andExpect(jsonPath("_links.index").exists());
+    }
+
+    @Test
+    @TestDescription("잘못된 커서로 조회하면 400 응답받기")
+    public void queryEventsAfterWrongCursor() throws Exception {
+        mvc.perform(get("/api/events")
+                .param("after", "!!!"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @TestDescription("기존의 이벤트를 하나 조회하기")
     public void getEvent() throws Exception {
@@ -287,6 +837,229 @@ public class EventControllerTest extends BaseControllerTest {
                 .andDo(document("get-an-event"));
     }
 
+    @Test
+    @TestDescription("CBOR로 이벤트를 생성하고 CBOR, Smile로 HAL과 같은 구조를 조회하기")
+    public void createAndGetEventInBinaryFormats() throws Exception {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory())
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        EventDto eventDto = EventDto.builder()
+                .name("Spring")
+                .description("Rest API")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 1, 27, 16, 3))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .beginEventDateTime(LocalDateTime.of(2020, 1, 27, 12, 1))
+                .endEventDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+
+        byte[] created = mvc.perform(post("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, getBearToken())
+                .contentType(BinaryMediaTypes.CBOR)
+                .accept(BinaryMediaTypes.CBOR)
+                .content(cborMapper.writeValueAsBytes(eventDto)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(BinaryMediaTypes.CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode createdNode = cborMapper.readTree(created);
+        assertThat(createdNode.get("name").asText()).isEqualTo("Spring");
+        assertThat(createdNode.get("beginEnrollmentDateTime").asText()).isEqualTo("2020-01-27T16:03:00");
+        assertThat(createdNode.at("/_links/self/href").asText()).endsWith("/api/events/" + createdNode.get("id").asLong());
+
+        MockHttpServletResponse smileResponse = mvc.perform(get("/api/events/{id}", createdNode.get("id").asLong())
+                .accept(BinaryMediaTypes.SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BinaryMediaTypes.SMILE))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse();
+        byte[] smile = smileResponse.getContentAsByteArray();
+        JsonNode smileNode = new ObjectMapper(new SmileFactory()).readTree(smile);
+        assertThat(smileNode.get("id").asLong()).isEqualTo(createdNode.get("id").asLong());
+        assertThat(smileNode.at("/_links/profile/href").isMissingNode()).isFalse();
+
+        // 바이너리 요청 뒤에도 HAL+JSON 응답은 그대로다.
+        MockHttpServletResponse halResponse = mvc.perform(get("/api/events/{id}", createdNode.get("id").asLong()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON))
+                .andExpect(jsonPath("_links.self").exists())
+                .andReturn().getResponse();
+        assertThat(smile.length).isLessThan(halResponse.getContentAsByteArray().length);
+
+        // 표현마다 바이트가 다르므로 ETag도 달라야 다른 표현의 캐시로 304를 받지 않는다.
+        String smileETag = smileResponse.getHeader(HttpHeaders.ETAG);
+        assertThat(smileETag).isNotEqualTo(halResponse.getHeader(HttpHeaders.ETAG));
+        mvc.perform(get("/api/events/{id}", createdNode.get("id").asLong())
+                .header(HttpHeaders.IF_NONE_MATCH, smileETag))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/events/{id}", createdNode.get("id").asLong())
+                .accept(BinaryMediaTypes.SMILE)
+                .header(HttpHeaders.IF_NONE_MATCH, smileETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @TestDescription("CBOR로 잘못된 이벤트를 보내면 에러도 CBOR로 응답받기")
+    public void createEvent_Bad_Request_Cbor() throws Exception {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory())
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        EventDto eventDto = EventDto.builder()
+                .name("Spring")
+                .description("Rest API")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 1, 28, 16, 3))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 1, 27, 12, 1))
+                .beginEventDateTime(LocalDateTime.of(2020, 1, 26, 12, 1))
+                .endEventDateTime(LocalDateTime.of(2020, 1, 24, 12, 1))
+                .basePrice(10000)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+
+        byte[] response = mvc.perform(post("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, getBearToken())
+                .contentType(BinaryMediaTypes.CBOR)
+                .accept(BinaryMediaTypes.CBOR)
+                .content(cborMapper.writeValueAsBytes(eventDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(BinaryMediaTypes.CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode node = cborMapper.readTree(response);
+        assertThat(node.at("/errors/0/objectName").isMissingNode()).isFalse();
+        assertThat(node.at("/errors/0/code").isMissingNode()).isFalse();
+        assertThat(node.at("/_links/index").isMissingNode()).isFalse();
+    }
+
+    @Test
+    @TestDescription("이벤트 20개를 조회할 때 계정을 추가로 조회하지 않는 테스트")
+    public void queryEventsStatementCount() throws Exception {
+        Account account = createAccount();
+        IntStream.range(0, 20).forEach(i -> generateEvent(i, account));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mvc.perform(get("/api/events")
+                .param("page", "0")
+                .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].account.id").value(account.getId()));
+
+        // 목록 조회 + count 조회를 넘지 않고, 계정은 목록과 함께 가져와서 따로 select하지 않는다.
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        assertThat(statistics.getEntityStatistics(Account.class.getName()).getFetchCount()).isZero();
+    }
+
+    @Test
+    @TestDescription("이벤트 하나를 조회할 때 계정을 추가로 조회하지 않는 테스트")
+    public void getEventStatementCount() throws Exception {
+        Account account = createAccount();
+        Event event = generateEvent(100, account);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("account.id").value(account.getId()));
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1);
+        assertThat(statistics.getEntityStatistics(Account.class.getName()).getFetchCount()).isZero();
+    }
+
+    @Test
+    @TestDescription("소유자와 다른 사용자가 각자의 링크가 담긴 응답을 받는 테스트")
+    public void getEventPerOwner() throws Exception {
+        Account account = createAccount();
+        Event event = generateEvent(100, account);
+        String token = getBearToken(false);
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/api/events/{id}", event.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaTypes.HAL_JSON_VALUE))
+                    .andExpect(jsonPath("_links.update-event").doesNotExist());
+
+            mvc.perform(get("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("_links.update-event").exists());
+        }
+    }
+
+    @Test
+    @TestDescription("요청 주소가 계속 바뀌어도 각자의 주소로 된 링크를 받는 테스트")
+    public void getEventPerHost() throws Exception {
+        Event event = generateEvent(100);
+
+        for (int i = 0; i < 10; i++) {
+            String host = "host" + i + ".example.com";
+            mvc.perform(get("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.HOST, host))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("_links.self.href").value("http://" + host + "/api/events/" + event.getId()));
+        }
+    }
+
+    @Test
+    @TestDescription("ETag가 일치하면 304 응답받기")
+    public void getEventNotModified() throws Exception {
+        Account account = createAccount();
+        Event event = generateEvent(100, account);
+
+        String eTag = mvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/api/events/{id}", event.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @TestDescription("목록의 ETag가 일치하면 304 응답받기")
+    public void queryEventsNotModified() throws Exception {
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        String eTag = mvc.perform(get("/api/events")
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/api/events")
+                .param("size", "10")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @TestDescription("대략적인 전체 개수가 바뀌면 slice 목록의 ETag도 바뀌는 테스트")
+    public void querySliceETagIncludesApproximateCount() throws Exception {
+        IntStream.range(0, 30).forEach(this::generateEvent);
+        eventCountCache.refresh();
+
+        String eTag = mvc.perform(get("/api/events")
+                .param("slice", "true")
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.approximateTotalElements").value(30))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        generateEvent(30);
+        eventCountCache.refresh();
+
+        mvc.perform(get("/api/events")
+                .param("slice", "true")
+                .param("size", "10")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.approximateTotalElements").value(31));
+    }
+
     @Test
     @TestDescription("없는 이벤트를 조회했을 때 404 응답받기")
     public void getEvent404() throws Exception {
@@ -294,6 +1067,45 @@ public class EventControllerTest extends BaseControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @TestDescription("변경 피드를 구독하면 이벤트 생성 알림을 SSE로 받는 테스트")
+    public void subscribeEventFeed() throws Exception {
+        MvcResult feed = mvc.perform(get("/api/events/feed")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", eventFeed.getLastEventId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String location = mvc.perform(post("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, getBearToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(EventDto.builder()
+                        .name("Spring")
+                        .description("Rest API")
+                        .beginEnrollmentDateTime(LocalDateTime.of(2020, 1, 27, 16, 3))
+                        .closeEnrollmentDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                        .beginEventDateTime(LocalDateTime.of(2020, 1, 27, 12, 1))
+                        .endEventDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                        .basePrice(100)
+                        .maxPrice(200)
+                        .limitOfEnrollment(100)
+                        .location("강남역")
+                        .build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        String id = location.substring(location.lastIndexOf('/') + 1);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = feed.getResponse().getContentAsString();
+        while (!content.contains("\"id\":" + id) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = feed.getResponse().getContentAsString();
+        }
+        assertThat(content).contains("event:created");
+        assertThat(content).contains("\"type\":\"CREATED\"");
+        assertThat(content).contains("\"id\":" + id);
+    }
+
     @Test
     @TestDescription("이벤트 수정하기")
     public void updateEvent() throws Exception {
@@ -354,6 +1166,111 @@ public class EventControllerTest extends BaseControllerTest {
                         )));
     }
 
+    @Test
+    @TestDescription("이벤트를 수정하면 캐시된 조회 결과도 바뀌는 테스트")
+    public void getEventAfterUpdate() throws Exception {
+        Account account = createAccount();
+        Event event = generateEvent(600, account);
+        mvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(jsonPath("name").value("event 600"));
+
+        EventDto eventDto = modelMapper.map(event, EventDto.class);
+        eventDto.setName("UpdateEvent");
+        mvc.perform(put("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, getBearToken(false))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("UpdateEvent"));
+    }
+
+    @Test
+    @TestDescription("If-Match 버전이 다르면 이벤트 수정실패")
+    public void updateEventPreconditionFailed() throws Exception {
+        Account account = createAccount();
+        Event event = generateEvent(500, account);
+        EventDto eventDto = modelMapper.map(event, EventDto.class);
+        eventDto.setName("UpdateEvent");
+        String token = getBearToken(false);
+
+        String eTag = mvc.perform(put("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(put("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .header(HttpHeaders.IF_MATCH, "\"" + event.getId() + ".0.owner\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        // If-Match는 강한 비교를 하므로 같은 값이라도 약한 ETag로는 수정할 수 없다.
+        mvc.perform(put("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .header(HttpHeaders.IF_MATCH, "W/" + eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        mvc.perform(put("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @TestDescription("같은 이벤트를 동시에 수정해도 성공한 수정만큼 버전이 올라가는 테스트")
+    public void updateEventConcurrently() throws Exception {
+        Account account = createAccount();
+        Event event = generateEvent(600, account);
+        Long initialVersion = eventRepository.findById(event.getId()).orElseThrow().getVersion();
+        String token = getBearToken(false);
+        int threads = 8;
+        int updatesPerThread = 5;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<Integer> statuses = new ArrayList<>();
+                for (int i = 0; i < updatesPerThread; i++) {
+                    EventDto eventDto = modelMapper.map(event, EventDto.class);
+                    eventDto.setName("update " + thread + "-" + i);
+                    statuses.add(mvc.perform(put("/api/events/{id}", event.getId())
+                            .header(HttpHeaders.AUTHORIZATION, token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(eventDto)))
+                            .andReturn().getResponse().getStatus());
+                }
+                return statuses;
+            }));
+        }
+        start.countDown();
+
+        List<Integer> statuses = new ArrayList<>();
+        for (Future<List<Integer>> future : futures) {
+            statuses.addAll(future.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertThat(statuses).hasSize(threads * updatesPerThread);
+        assertThat(statuses).allMatch(status -> status == 200 || status == 409);
+        long succeeded = statuses.stream().filter(status -> status == 200).count();
+        Long finalVersion = eventRepository.findById(event.getId()).orElseThrow().getVersion();
+        assertThat(finalVersion - initialVersion).isEqualTo(succeeded);
+    }
+
     @Test
     @TestDescription("입력값이 비어있는 경우 이벤트 수정실패")
     public void updateEvent400_Empty() throws Exception {
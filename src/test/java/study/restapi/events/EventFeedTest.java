@@ -0,0 +1,239 @@
+package study.restapi.events;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import study.restapi.common.AppProperties;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventFeedTest {
+    private EventFeed eventFeed;
+
+    @After
+    public void tearDown() {
+        eventFeed.destroy();
+    }
+
+    @Test
+    public void resumeFromLastEventId() throws Exception {
+        eventFeed = eventFeed(16, 16);
+        changed(1L, EventChangedEvent.Type.CREATED);
+        changed(2L, EventChangedEvent.Type.CREATED);
+        changed(1L, EventChangedEvent.Type.UPDATED);
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        eventFeed.subscribe(emitter, eventFeed.eventId(1), () -> {});
+        changed(3L, EventChangedEvent.Type.CREATED);
+
+        assertEntry(emitter.next(), 2, EventFeedEntry.Type.CREATED, 2L);
+        assertThat(emitter.ids.poll()).isEqualTo(eventFeed.eventId(2));
+        assertEntry(emitter.next(), 3, EventFeedEntry.Type.UPDATED, 1L);
+        assertEntry(emitter.next(), 4, EventFeedEntry.Type.CREATED, 3L);
+    }
+
+    @Test
+    public void newSubscriberReceivesOnlyLiveEntries() throws Exception {
+        eventFeed = eventFeed(16, 16);
+        changed(1L, EventChangedEvent.Type.CREATED);
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        eventFeed.subscribe(emitter, null, () -> {});
+        eventFeed.onEventStatusChanged(new EventStatusChangedEvent(List.of(1L), EventStatus.BEGAN_ENROLLMENT));
+
+        EventFeedEntry entry = emitter.next();
+        assertEntry(entry, 2, EventFeedEntry.Type.STATUS_CHANGED, 1L);
+        assertThat(entry.getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+    }
+
+    @Test
+    public void resetWhenLastEventIdIsNoLongerBuffered() throws Exception {
+        eventFeed = eventFeed(4, 16);
+        for (long id = 1; id <= 10; id++) {
+            changed(id, EventChangedEvent.Type.CREATED);
+        }
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        eventFeed.subscribe(emitter, eventFeed.eventId(2), () -> {});
+        changed(11L, EventChangedEvent.Type.CREATED);
+
+        EventFeedEntry reset = emitter.next();
+        assertThat(reset.getType()).isEqualTo(EventFeedEntry.Type.RESET);
+        assertThat(reset.getSequence()).isEqualTo(10);
+        assertEntry(emitter.next(), 11, EventFeedEntry.Type.CREATED, 11L);
+    }
+
+    @Test
+    public void resetWhenLastEventIdIsFromBeforeRestart() throws Exception {
+        eventFeed = eventFeed(16, 16);
+        for (long id = 1; id <= 3; id++) {
+            changed(id, EventChangedEvent.Type.CREATED);
+        }
+        String beforeRestart = eventFeed.getLastEventId();
+        eventFeed.destroy();
+
+        // 재시작한 뒤 번호가 예전 id를 넘어서도 이어 주지 않고 RESET을 보낸다.
+        eventFeed = eventFeed(16, 16);
+        for (long id = 1; id <= 5; id++) {
+            changed(id, EventChangedEvent.Type.CREATED);
+        }
+        RecordingEmitter emitter = new RecordingEmitter();
+        eventFeed.subscribe(emitter, beforeRestart, () -> {});
+        changed(6L, EventChangedEvent.Type.CREATED);
+
+        EventFeedEntry reset = emitter.next();
+        assertThat(reset.getType()).isEqualTo(EventFeedEntry.Type.RESET);
+        assertThat(reset.getSequence()).isEqualTo(5);
+        assertThat(emitter.ids.poll()).isEqualTo(eventFeed.eventId(5));
+        assertThat(eventFeed.eventId(3)).isNotEqualTo(beforeRestart);
+        assertEntry(emitter.next(), 6, EventFeedEntry.Type.CREATED, 6L);
+    }
+
+    @Test
+    public void resetWhenLastEventIdIsUnknown() throws Exception {
+        eventFeed = eventFeed(16, 16);
+        changed(1L, EventChangedEvent.Type.CREATED);
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        eventFeed.subscribe(emitter, "1", () -> {});
+
+        assertThat(emitter.next().getType()).isEqualTo(EventFeedEntry.Type.RESET);
+    }
+
+    @Test(timeout = 10000)
+    public void slowSubscriberIsDisconnectedWithoutBlockingWrites() throws Exception {
+        eventFeed = eventFeed(64, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        eventFeed.subscribe(slow, null, aborted::countDown);
+        changed(1L, EventChangedEvent.Type.CREATED);
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (long id = 2; id <= 20; id++) {
+            changed(id, EventChangedEvent.Type.CREATED);
+        }
+        assertThat(eventFeed.getSubscriberCount()).isZero();
+        assertThat(eventFeed.getLastSequence()).isEqualTo(20);
+        // 전송이 막혀 있으면 emitter를 기다리지 않고 바깥에서 연결을 끝낸다.
+        assertThat(aborted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        release.countDown();
+        // 끊기기 전까지 큐에 있던 것만 받는다.
+        assertThat(slow.entries.size()).isLessThanOrEqualTo(5);
+    }
+
+    @Test(timeout = 10000)
+    public void abortSendBlockedLongerThanTimeout() throws Exception {
+        eventFeed = eventFeed(64, 16, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+        RecordingEmitter stuck = new RecordingEmitter(release);
+        eventFeed.subscribe(stuck, null, aborted::countDown);
+        changed(1L, EventChangedEvent.Type.CREATED);
+
+        while (aborted.getCount() > 0) {
+            Thread.sleep(20);
+            eventFeed.abortStuckSends();
+        }
+        assertThat(eventFeed.getSubscriberCount()).isZero();
+        release.countDown();
+    }
+
+    @Test
+    public void heartbeatSendsCommentToIdleSubscribers() throws Exception {
+        eventFeed = eventFeed(16, 16);
+        RecordingEmitter emitter = new RecordingEmitter();
+        eventFeed.subscribe(emitter, null, () -> {});
+
+        eventFeed.heartbeat();
+
+        assertThat(emitter.comments.poll(5, TimeUnit.SECONDS)).contains("heartbeat");
+        assertThat(emitter.entries).isEmpty();
+    }
+
+    private EventFeed eventFeed(int bufferSize, int subscriberBufferSize) {
+        return eventFeed(bufferSize, subscriberBufferSize, Duration.ofSeconds(10));
+    }
+
+    // watchdog은 시작하지 않고 heartbeat, abortStuckSends를 직접 부른다.
+    private EventFeed eventFeed(int bufferSize, int subscriberBufferSize, Duration sendTimeout) {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setEventFeedBufferSize(bufferSize);
+        appProperties.setEventFeedSubscriberBufferSize(subscriberBufferSize);
+        appProperties.setEventFeedSendTimeout(sendTimeout);
+        return new EventFeed(appProperties);
+    }
+
+    private void changed(Long id, EventChangedEvent.Type type) {
+        Event event = Event.builder().id(id).eventStatus(EventStatus.DREFT).build();
+        eventFeed.onEventChanged(new EventChangedEvent(event, type));
+    }
+
+    private void assertEntry(EventFeedEntry entry, long sequence, EventFeedEntry.Type type, Long id) {
+        assertThat(entry).isNotNull();
+        assertThat(entry.getSequence()).isEqualTo(sequence);
+        assertThat(entry.getType()).isEqualTo(type);
+        assertThat(entry.getId()).isEqualTo(id);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<EventFeedEntry> entries = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> ids = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> comments = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        private RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            EventFeedEntry entry = null;
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof EventFeedEntry) {
+                    entry = (EventFeedEntry) data.getData();
+                } else {
+                    text.append(data.getData());
+                }
+            }
+            if (entry == null) {
+                comments.add(text.toString());
+                return;
+            }
+            // id를 먼저 넣어야 next()로 받은 뒤에 ids에서 바로 꺼낼 수 있다.
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("id:")) {
+                    ids.add(line.substring("id:".length()));
+                }
+            }
+            entries.add(entry);
+        }
+
+        private EventFeedEntry next() throws InterruptedException {
+            return entries.poll(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package study.restapi.events;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventIndexLoaderTest {
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EventIndexLoader eventIndexLoader;
+
+    @Autowired
+    EventSearchIndex eventSearchIndex;
+
+    @Autowired
+    ScanHook scanHook;
+
+    @Before
+    public void setup() {
+        eventRepository.deleteAll();
+    }
+
+    @After
+    public void tearDown() {
+        scanHook.onIndex = null;
+    }
+
+    @Test
+    public void applyChangesMadeDuringRebuildAfterScan() {
+        Event first = save("spring first");
+        Event second = save("spring second");
+        Event changed = eventRepository.findById(second.getId()).orElseThrow();
+        changed.setName("kotlin second");
+
+        // 첫 이벤트를 색인하는 중에, 아직 스캔이 읽지 않은 두 번째 이벤트의 변경이 들어온 경우
+        scanHook.onIndex = () -> eventIndexLoader.onEventChanged(
+                new EventChangedEvent(changed, EventChangedEvent.Type.UPDATED));
+        eventIndexLoader.rebuild();
+
+        assertThat(eventSearchIndex.search("kotlin")).containsExactly(second.getId());
+        assertThat(eventSearchIndex.search("spring")).containsExactly(first.getId());
+    }
+
+    private Event save(String name) {
+        return eventRepository.save(Event.builder()
+                .name(name)
+                .description("test event")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 1, 27, 16, 3))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .beginEventDateTime(LocalDateTime.of(2020, 1, 29, 12, 1))
+                .endEventDateTime(LocalDateTime.of(2020, 1, 30, 12, 1))
+                .eventStatus(EventStatus.DREFT)
+                .build());
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ScanHook scanHook() {
+            return new ScanHook();
+        }
+    }
+
+    // 스캔이 처음 색인할 때 한 번만 onIndex를 실행한다.
+    static class ScanHook implements EventIndex {
+        private volatile Runnable onIndex;
+
+        @Override
+        public void index(Event event) {
+            Runnable hook = onIndex;
+            if (hook != null) {
+                onIndex = null;
+                hook.run();
+            }
+        }
+
+        @Override
+        public void clear() {
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package study.restapi.events;
+
+import org.junit.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import study.restapi.accounts.Account;
+
+import java.beans.PropertyDescriptor;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventMapperTest {
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final EventMapper eventMapper = new EventMapper();
+
+    @Test
+    public void toEvent() {
+        EventDto eventDto = eventDto();
+
+        assertSameProperties(eventMapper.toEvent(eventDto), modelMapper.map(eventDto, Event.class));
+    }
+
+    @Test
+    public void toEventWithNullValues() {
+        EventDto eventDto = new EventDto();
+
+        assertSameProperties(eventMapper.toEvent(eventDto), modelMapper.map(eventDto, Event.class));
+    }
+
+    @Test
+    public void mapInPlace() {
+        EventDto eventDto = eventDto();
+        eventDto.setLocation(null);
+        Event expected = existingEvent();
+        Event actual = existingEvent();
+
+        modelMapper.map(eventDto, expected);
+        eventMapper.map(eventDto, actual);
+
+        assertSameProperties(actual, expected);
+        assertThat(actual.getId()).isEqualTo(10L);
+        assertThat(actual.getLocation()).isNull();
+    }
+
+    // EventDto의 모든 속성과 Event의 나머지 속성이 ModelMapper 결과와 같은지 비교한다.
+    private void assertSameProperties(Event actual, Event expected) {
+        BeanWrapper actualWrapper = PropertyAccessorFactory.forBeanPropertyAccess(actual);
+        BeanWrapper expectedWrapper = PropertyAccessorFactory.forBeanPropertyAccess(expected);
+        for (PropertyDescriptor descriptor : PropertyAccessorFactory.forBeanPropertyAccess(new EventDto()).getPropertyDescriptors()) {
+            String name = descriptor.getName();
+            if (name.equals("class")) {
+                continue;
+            }
+            assertThat(actualWrapper.getPropertyValue(name))
+                    .as(name)
+                    .isEqualTo(expectedWrapper.getPropertyValue(name));
+        }
+        for (PropertyDescriptor descriptor : actualWrapper.getPropertyDescriptors()) {
+            if (descriptor.getReadMethod() != null) {
+                assertThat(actualWrapper.getPropertyValue(descriptor.getName()))
+                        .as(descriptor.getName())
+                        .isEqualTo(expectedWrapper.getPropertyValue(descriptor.getName()));
+            }
+        }
+    }
+
+    private EventDto eventDto() {
+        return EventDto.builder()
+                .name("Spring")
+                .description("Rest API")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 1, 27, 16, 3))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .beginEventDateTime(LocalDateTime.of(2020, 1, 27, 12, 1))
+                .endEventDateTime(LocalDateTime.of(2020, 1, 28, 12, 1))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+    }
+
+    private Event existingEvent() {
+        return Event.builder()
+                .id(10L)
+                .version(3L)
+                .name("old")
+                .description("old description")
+                .location("old location")
+                .basePrice(1)
+                .maxPrice(2)
+                .limitOfEnrollment(3)
+                .free(true)
+                .offline(true)
+                .eventStatus(EventStatus.PUBLISHED)
+                .account(Account.builder().id(1L).build())
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package study.restapi.events;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventSearchIndexTest {
+    private final EventSearchIndex index = new EventSearchIndex();
+
+    @Test
+    public void tokenize() {
+        assertThat(EventSearchIndex.tokenize("Spring REST-API, 강남역 2020"))
+                .containsExactly("spring", "rest", "api", "강남역", "2020");
+        assertThat(EventSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    public void searchRanksByFieldWeight() {
+        index.index(event(1L, "Java study", "spring boot", "판교"));
+        index.index(event(2L, "Spring study", "rest api", "강남역"));
+        index.index(event(3L, "Kotlin study", "coroutines", "spring tower"));
+
+        assertThat(index.search("spring")).containsExactly(2L, 3L, 1L);
+        assertThat(index.search("STUDY spr")).containsExactly(2L, 3L, 1L);
+        assertThat(index.search("spring 강남")).containsExactly(2L);
+        assertThat(index.search("python")).isEmpty();
+        assertThat(index.search(" ")).isEmpty();
+    }
+
+    @Test
+    public void searchKeepsOnlyTopHits() {
+        index.index(event(1L, "Java study", "spring boot", "판교"));
+        index.index(event(2L, "Spring study", "rest api", "강남역"));
+        index.index(event(3L, "Kotlin study", "coroutines", "spring tower"));
+
+        EventSearchIndex.Hits hits = index.search("spring", 2);
+        assertThat(hits.getIds()).containsExactly(2L, 3L);
+        assertThat(hits.getTotal()).isEqualTo(3);
+        assertThat(index.search("spring", 0).getIds()).isEmpty();
+    }
+
+    @Test
+    public void shortTokenMatchesWholeTermOnly() {
+        index.index(event(1L, "Spring study", "rest api", "강남역"));
+        index.index(event(2L, "C study", "s", "판교"));
+
+        assertThat(index.search("s")).containsExactly(2L);
+        assertThat(index.search("sp")).containsExactly(1L);
+    }
+
+    @Test
+    public void updateReplacesTerms() {
+        index.index(event(1L, "Spring study", "rest api", "강남역"));
+        index.index(event(1L, "Kotlin study", "coroutines", "판교"));
+
+        assertThat(index.search("spring")).isEmpty();
+        assertThat(index.search("kotlin")).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(1L);
+        assertThat(index.search("kotlin")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    // 짧은 접두어 검색 시간을 남긴다. 1M 이벤트 기준 목표는 운영 규모 데이터로 따로 확인한다.
+    @Test
+    public void measureShortPrefixSearch() {
+        String[] words = {"spring", "spark", "speaker", "java", "kotlin", "study", "rest", "api", "boot", "cloud"};
+        String[] locations = {"강남역", "판교", "잠실", "홍대"};
+        int events = 100_000;
+        for (long id = 1; id <= events; id++) {
+            int i = (int) id;
+            index.index(event(id, words[i % words.length] + " " + words[(i / 7) % words.length] + " " + i,
+                    words[(i / 3) % words.length] + " meetup", locations[i % locations.length]));
+        }
+
+        long[] nanos = new long[50];
+        for (int run = 0; run < nanos.length; run++) {
+            long start = System.nanoTime();
+            EventSearchIndex.Hits hits = index.search("sp", 20);
+            nanos[run] = System.nanoTime() - start;
+            assertThat(hits.getIds()).hasSize(20);
+        }
+        Arrays.sort(nanos);
+        System.out.printf("Prefix \"sp\" over %d events: p50 %.3f ms, max %.3f ms%n",
+                events, nanos[nanos.length / 2] / 1e6, nanos[nanos.length - 1] / 1e6);
+    }
+
+    private Event event(Long id, String name, String description, String location) {
+        return Event.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .location(location)
+                .build();
+    }
+}
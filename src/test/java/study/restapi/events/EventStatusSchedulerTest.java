@@ -0,0 +1,158 @@
+package study.restapi.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.restapi.common.AppProperties;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventStatusSchedulerTest {
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EventStatusScheduler eventStatusScheduler;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    AppProperties appProperties;
+
+    @Before
+    public void setup() {
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    public void reloadAppliesPastTransitions() {
+        LocalDateTime now = LocalDateTime.now();
+        Event began = save(EventStatus.PUBLISHED, now.minusMinutes(10), now.plusDays(1));
+        Event closed = save(EventStatus.PUBLISHED, now.minusMinutes(10), now.minusMinutes(5));
+        Event draft = save(EventStatus.DREFT, now.minusMinutes(10), now.minusMinutes(5));
+
+        eventStatusScheduler.reload();
+
+        Event reloadedBegan = eventRepository.findById(began.getId()).orElseThrow();
+        assertThat(reloadedBegan.getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+        assertThat(reloadedBegan.getVersion()).isEqualTo(began.getVersion() + 1);
+        Event reloadedClosed = eventRepository.findById(closed.getId()).orElseThrow();
+        assertThat(reloadedClosed.getEventStatus()).isEqualTo(EventStatus.CLOSED_ENROLLMENT);
+        assertThat(reloadedClosed.getVersion()).isEqualTo(closed.getVersion() + 2);
+        assertThat(eventRepository.findById(draft.getId()).orElseThrow().getEventStatus()).isEqualTo(EventStatus.DREFT);
+    }
+
+    @Test
+    public void tickAppliesScheduledTransitions() {
+        MutableClock clock = new MutableClock(Instant.now());
+        MeterRegistry registry = new SimpleMeterRegistry();
+        EventStatusScheduler scheduler = new EventStatusScheduler(eventRepository, transactionTemplate,
+                eventPublisher, appProperties, registry, clock);
+        scheduler.reload();
+        LocalDateTime now = LocalDateTime.now(clock);
+        Event event = save(EventStatus.PUBLISHED, now.plusSeconds(1), now.plusSeconds(2));
+        scheduler.onEventChanged(new EventChangedEvent(event, EventChangedEvent.Type.CREATED));
+        assertThat(scheduler.getPendingCount()).isEqualTo(2);
+
+        scheduler.tick();
+        assertThat(eventRepository.findById(event.getId()).orElseThrow().getEventStatus())
+                .isEqualTo(EventStatus.PUBLISHED);
+
+        clock.advance(Duration.ofMillis(3500));
+        scheduler.tick();
+
+        assertThat(eventRepository.findById(event.getId()).orElseThrow().getEventStatus())
+                .isEqualTo(EventStatus.CLOSED_ENROLLMENT);
+        assertThat(scheduler.getPendingCount()).isZero();
+        assertThat(registry.get("events.status.lag").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void findDeadlinesPagesThroughSameTime() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Long> ids = IntStream.range(0, 5)
+                .mapToObj(i -> save(EventStatus.PUBLISHED, now.plusMinutes(1), now.plusDays(1)).getId())
+                .collect(Collectors.toList());
+
+        // 같은 시각의 이벤트가 한 번에 읽는 개수보다 많아도 (시각, id) 커서로 이어서 모두 읽는다.
+        List<Long> found = new ArrayList<>();
+        EventDeadline after = new EventDeadline(Long.MAX_VALUE, now);
+        while (true) {
+            List<EventDeadline> deadlines = eventRepository.findDeadlines("beginEnrollmentDateTime",
+                    Set.of(EventStatus.PUBLISHED), after, now.plusHours(1), 2);
+            if (deadlines.isEmpty()) {
+                break;
+            }
+            deadlines.forEach(deadline -> found.add(deadline.getId()));
+            after = deadlines.get(deadlines.size() - 1);
+        }
+
+        assertThat(found).containsExactlyElementsOf(ids);
+    }
+
+    private Event save(EventStatus eventStatus, LocalDateTime beginEnrollment, LocalDateTime closeEnrollment) {
+        Event event = Event.builder()
+                .name("event")
+                .description("test event")
+                .beginEnrollmentDateTime(beginEnrollment)
+                .closeEnrollmentDateTime(closeEnrollment)
+                .beginEventDateTime(closeEnrollment.plusDays(1))
+                .endEventDateTime(closeEnrollment.plusDays(2))
+                .eventStatus(eventStatus)
+                .build();
+        return eventRepository.save(event);
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
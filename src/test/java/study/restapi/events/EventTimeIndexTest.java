@@ -0,0 +1,71 @@
+package study.restapi.events;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventTimeIndexTest {
+    private final EventTimeIndex index = new EventTimeIndex();
+
+    @Test
+    public void findOverlapping() {
+        index.index(event(1L, at(1, 10), at(1, 12)));
+        index.index(event(2L, at(1, 11), at(3, 9)));
+        index.index(event(3L, at(2, 0), at(2, 1)));
+        index.index(event(4L, at(5, 0), at(5, 1)));
+
+        assertThat(index.findOverlapping(EventTimeIndex.Range.EVENT, at(1, 11), at(2, 0)))
+                .containsExactly(1L, 2L);
+        assertThat(index.findOverlapping(EventTimeIndex.Range.EVENT, at(1, 12), at(4, 0)))
+                .containsExactly(2L, 3L);
+        assertThat(index.findOverlapping(EventTimeIndex.Range.EVENT, at(4, 0), at(5, 0)))
+                .isEmpty();
+    }
+
+    @Test
+    public void findOverlappingLongInterval() {
+        index.index(event(1L, at(1, 0), at(1, 0).plusYears(2)));
+
+        assertThat(index.findOverlapping(EventTimeIndex.Range.EVENT, at(1, 0).plusMonths(13), at(1, 0).plusMonths(14)))
+                .containsExactly(1L);
+        assertThat(index.findOverlapping(EventTimeIndex.Range.EVENT, at(1, 0).plusYears(3), at(1, 0).plusYears(4)))
+                .isEmpty();
+    }
+
+    @Test
+    public void updateMovesInterval() {
+        index.index(event(1L, at(1, 10), at(1, 12)));
+        index.index(event(1L, at(10, 10), at(10, 12)));
+
+        assertThat(index.findOverlapping(EventTimeIndex.Range.EVENT, at(1, 0), at(2, 0))).isEmpty();
+        assertThat(index.findOverlapping(EventTimeIndex.Range.EVENT, at(10, 0), at(11, 0))).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.findOverlapping(EventTimeIndex.Range.EVENT, at(10, 0), at(11, 0))).isEmpty();
+    }
+
+    @Test
+    public void enrollmentRangeIsIndexedSeparately() {
+        Event event = event(1L, at(10, 10), at(10, 12));
+        event.setBeginEnrollmentDateTime(at(1, 0));
+        event.setCloseEnrollmentDateTime(at(5, 0));
+        index.index(event);
+
+        assertThat(index.findOverlapping(EventTimeIndex.Range.ENROLLMENT, at(2, 0), at(3, 0))).containsExactly(1L);
+        assertThat(index.findOverlapping(EventTimeIndex.Range.EVENT, at(2, 0), at(3, 0))).isEmpty();
+    }
+
+    private LocalDateTime at(int day, int hour) {
+        return LocalDateTime.of(2020, 3, day, hour, 0);
+    }
+
+    private Event event(Long id, LocalDateTime begin, LocalDateTime end) {
+        return Event.builder()
+                .id(id)
+                .beginEventDateTime(begin)
+                .endEventDateTime(end)
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package study.restapi.tokens;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentTokenStoreTest {
+    private ConcurrentTokenStore tokenStore;
+
+    @Before
+    public void setup() {
+        tokenStore = new ConcurrentTokenStore(Duration.ofMinutes(10), Duration.ofMinutes(60), Duration.ofSeconds(1), 1000);
+    }
+
+    @After
+    public void tearDown() {
+        tokenStore.destroy();
+    }
+
+    @Test
+    public void issueReadAndRevokeConcurrently() throws Exception {
+        int threads = 16;
+        int tokensPerThread = 2000;
+        ConcurrentTokenStore store = new ConcurrentTokenStore(Duration.ofMinutes(10), Duration.ofMinutes(60),
+                Duration.ofSeconds(1), threads * tokensPerThread);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String userName = "user" + t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < tokensPerThread; i++) {
+                    OAuth2Authentication authentication = authentication(userName);
+                    DefaultOAuth2AccessToken token = accessToken(Duration.ofMinutes(10));
+                    store.storeAccessToken(token, authentication);
+                    assertThat(store.readAccessToken(token.getValue())).isEqualTo(token);
+                    assertThat(store.readAuthentication(token)).isSameAs(authentication);
+                    if (i % 2 == 0) {
+                        store.removeAccessToken(token);
+                        assertThat(store.readAccessToken(token.getValue())).isNull();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(store.getAccessTokenCount()).isEqualTo(threads * tokensPerThread / 2);
+        for (int t = 0; t < threads; t++) {
+            assertThat(store.findTokensByClientIdAndUserName("myApp", "user" + t)).hasSize(tokensPerThread / 2);
+        }
+        assertThat(store.findTokensByClientId("myApp")).hasSize(threads * tokensPerThread / 2);
+        store.destroy();
+    }
+
+    @Test
+    public void sweepExpiredTokens() {
+        DefaultOAuth2AccessToken expiring = accessToken(Duration.ofSeconds(5));
+        DefaultOAuth2AccessToken alive = accessToken(Duration.ofMinutes(5));
+        tokenStore.storeAccessToken(expiring, authentication("user"));
+        tokenStore.storeAccessToken(alive, authentication("other"));
+        DefaultExpiringOAuth2RefreshToken refreshToken = new DefaultExpiringOAuth2RefreshToken(
+                UUID.randomUUID().toString(), new Date(System.currentTimeMillis() + 5_000));
+        tokenStore.storeRefreshToken(refreshToken, authentication("user"));
+
+        tokenStore.sweep(System.currentTimeMillis() + 10_000);
+
+        assertThat(tokenStore.readAccessToken(expiring.getValue())).isNull();
+        assertThat(tokenStore.readAccessToken(alive.getValue())).isNotNull();
+        assertThat(tokenStore.readRefreshToken(refreshToken.getValue())).isNull();
+        assertThat(tokenStore.getExpiredCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void revokeAndRestoreKeepOneExpiryEntry() {
+        DefaultOAuth2AccessToken first = accessToken(Duration.ofMinutes(5));
+        DefaultOAuth2AccessToken second = accessToken(Duration.ofMinutes(5));
+        tokenStore.storeAccessToken(first, authentication("user"));
+        tokenStore.storeAccessToken(first, authentication("user"));
+        tokenStore.storeAccessToken(second, authentication("other"));
+        assertThat(tokenStore.getScheduledExpiryCount()).isEqualTo(2);
+
+        tokenStore.removeAccessToken(first);
+        assertThat(tokenStore.getScheduledExpiryCount()).isEqualTo(1);
+
+        tokenStore.sweep(System.currentTimeMillis() + Duration.ofMinutes(10).toMillis());
+        assertThat(tokenStore.getScheduledExpiryCount()).isZero();
+        assertThat(tokenStore.getExpiredCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void evictWhenFull() {
+        for (int i = 0; i < 1500; i++) {
+            tokenStore.storeAccessToken(accessToken(Duration.ofMinutes(10)), authentication("user" + i));
+        }
+
+        assertThat(tokenStore.getAccessTokenCount()).isLessThanOrEqualTo(1000);
+        assertThat(tokenStore.getEvictedCount()).isEqualTo(500);
+    }
+
+    private DefaultOAuth2AccessToken accessToken(Duration validity) {
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+        token.setExpiration(new Date(System.currentTimeMillis() + validity.toMillis()));
+        return token;
+    }
+
+    private OAuth2Authentication authentication(String userName) {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "myApp",
+                AuthorityUtils.createAuthorityList("ROLE_USER"), true, Set.of("read"),
+                Set.of("event"), null, Collections.emptySet(), Collections.emptyMap());
+        UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(userName, null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
+        return new OAuth2Authentication(request, user);
+    }
+}
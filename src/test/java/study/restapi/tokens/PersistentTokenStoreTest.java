@@ -0,0 +1,168 @@
+package study.restapi.tokens;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.SerializationUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PersistentTokenStoreTest {
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+    }
+
+    @After
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void reloadTokensAfterRestart() {
+        PersistentTokenStore tokenStore = newTokenStore();
+        DefaultOAuth2AccessToken kept = accessToken();
+        DefaultOAuth2AccessToken revoked = accessToken();
+        DefaultExpiringOAuth2RefreshToken refreshToken = new DefaultExpiringOAuth2RefreshToken(
+                UUID.randomUUID().toString(), new Date(System.currentTimeMillis() + 60_000));
+        kept.setRefreshToken(refreshToken);
+        tokenStore.storeAccessToken(kept, authentication("user"));
+        tokenStore.storeRefreshToken(refreshToken, authentication("user"));
+        tokenStore.storeAccessToken(revoked, authentication("other"));
+        tokenStore.removeAccessToken(revoked);
+        tokenStore.destroy();
+
+        PersistentTokenStore restarted = newTokenStore();
+
+        assertThat(restarted.readAccessToken(kept.getValue())).isEqualTo(kept);
+        assertThat(restarted.readAuthentication(kept.getValue()).getName()).isEqualTo("user");
+        assertThat(restarted.readRefreshToken(refreshToken.getValue())).isEqualTo(refreshToken);
+        assertThat(restarted.readAccessToken(revoked.getValue())).isNull();
+        restarted.removeAccessTokenUsingRefreshToken(refreshToken);
+        restarted.destroy();
+
+        PersistentTokenStore again = newTokenStore();
+        assertThat(again.readAccessToken(kept.getValue())).isNull();
+        again.destroy();
+    }
+
+    @Test
+    public void retryFailedWrites() throws InterruptedException {
+        PersistentTokenStore tokenStore = newTokenStore();
+        jdbcTemplate.execute("ALTER TABLE persistent_access_token RENAME TO persistent_access_token_moved");
+        DefaultOAuth2AccessToken token = accessToken();
+        tokenStore.storeAccessToken(token, authentication("user"));
+        waitUntil(() -> tokenStore.getFailedWriteCount() > 0);
+
+        jdbcTemplate.execute("ALTER TABLE persistent_access_token_moved RENAME TO persistent_access_token");
+        tokenStore.destroy();
+
+        PersistentTokenStore restarted = newTokenStore();
+        assertThat(restarted.readAccessToken(token.getValue())).isEqualTo(token);
+        restarted.destroy();
+    }
+
+    @Test
+    public void evictOverMaximumWhileLoadingWithoutQueueing() {
+        PersistentTokenStore tokenStore = newTokenStore();
+        IntStream.range(0, 20).forEach(i -> tokenStore.storeAccessToken(accessToken(), authentication("user")));
+        tokenStore.destroy();
+
+        // 쓰기 큐가 한 칸뿐이어도 적재 중에 밀려난 토큰 때문에 기동이 막히지 않아야 한다.
+        PersistentTokenStore restarted = newTokenStore(10, 1);
+        assertThat(restarted.getAccessTokenCount()).isEqualTo(10);
+        assertThat(restarted.getEvictedCount()).isEqualTo(10);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from persistent_access_token", Integer.class))
+                .isEqualTo(10);
+        restarted.destroy();
+    }
+
+    // 토큰 수에 따른 재시작 복구 시간을 남긴다. 1M 기준 측정은 운영 DB에서 tokens.load.time 지표로 본다.
+    @Test
+    public void measureRecoveryTime() {
+        int tokens = 20_000;
+        newTokenStore().destroy();
+        byte[] authentication = SerializationUtils.serialize(authentication("user"));
+        List<Object[]> rows = IntStream.range(0, tokens)
+                .mapToObj(i -> {
+                    DefaultOAuth2AccessToken token = accessToken();
+                    return new Object[]{token.getValue(), SerializationUtils.serialize(token), authentication,
+                            token.getExpiration().getTime()};
+                })
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("insert into persistent_access_token"
+                + " (token_id, token, authentication, expiration) values (?, ?, ?, ?)", rows);
+
+        PersistentTokenStore restarted = newTokenStore(tokens, 1000);
+        assertThat(restarted.getAccessTokenCount()).isEqualTo(tokens);
+        assertThat(restarted.getLoadDuration()).isPositive();
+        System.out.printf("Recovered %d tokens in %d ms%n", tokens, restarted.getLoadDuration().toMillis());
+        restarted.destroy();
+    }
+
+    private PersistentTokenStore newTokenStore() {
+        return newTokenStore(1000, 1000);
+    }
+
+    private PersistentTokenStore newTokenStore(int maximumTokens, int maxPendingWrites) {
+        PersistentTokenStore tokenStore = new PersistentTokenStore(jdbcTemplate, transactionTemplate,
+                Duration.ofMinutes(10), Duration.ofMinutes(60), Duration.ofSeconds(1), maximumTokens,
+                100, Duration.ofMillis(10), maxPendingWrites);
+        tokenStore.afterPropertiesSet();
+        return tokenStore;
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private DefaultOAuth2AccessToken accessToken() {
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+        token.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        return token;
+    }
+
+    private OAuth2Authentication authentication(String userName) {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "myApp",
+                AuthorityUtils.createAuthorityList("ROLE_USER"), true, Set.of("read"),
+                Set.of("event"), null, Collections.emptySet(), Collections.emptyMap());
+        UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(userName, null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
+        return new OAuth2Authentication(request, user);
+    }
+}